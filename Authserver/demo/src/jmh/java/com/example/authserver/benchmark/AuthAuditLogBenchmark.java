@@ -0,0 +1,64 @@
+package com.example.authserver.benchmark;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.example.authserver.service.AuthAuditLog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Custo, na thread da requisição, de registrar um evento de autenticação:
+//   ringBuffer -> AuthAuditLog.record (reserva no anel; a gravação em arquivo fica com a thread de escrita)
+//   println    -> linha formatada num PrintStream com autoflush, como o System.err.println síncrono de antes
+// O contador de descartes é impresso no fim: sob carga contínua acima da capacidade de gravação, o anel descarta em vez de bloquear.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthAuditLogBenchmark {
+
+    private Path dir;
+    private AuthAuditLog auditLog;
+    private PrintStream synchronousLog;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("auth-audit-bench");
+        auditLog = new AuthAuditLog(true, dir.resolve("ring"), 65_536, 1024, Duration.ofMillis(200),
+                DataSize.ofMegabytes(64), 4, new SimpleMeterRegistry());
+        synchronousLog = new PrintStream(new FileOutputStream(dir.resolve("println.log").toFile()), true);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        auditLog.close();
+        synchronousLog.close();
+        System.out.println("auth.audit: gravados=" + auditLog.writtenCount() + " descartados=" + auditLog.droppedCount());
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public boolean ringBuffer() {
+        return auditLog.record(AuthAuditLog.EventType.LOGIN_FAILURE, "user", null, null, "203.0.113.7", "bad_credentials");
+    }
+
+    @Benchmark
+    public void println() {
+        synchronousLog.println("Falha de login: usuário=user cliente=203.0.113.7 motivo=bad_credentials ts=" + System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.authserver.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+// Ponto de entrada do perfil Maven "jmh": roda os benchmarks selecionados uma vez para cada quantidade de threads,
+// com o profiler de GC (taxa de alocação), e grava um JSON por rodada em target/jmh/threads-<n>.json.
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String include = System.getProperty("jmh.include", ".*Benchmark.*");
+        Path output = Path.of(System.getProperty("jmh.output", "target/jmh"));
+        Files.createDirectories(output);
+
+        for (int threads : threadCounts(System.getProperty("jmh.threads", ""))) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .exclude(BenchmarkRunner.class.getSimpleName())
+                    .threads(threads)
+                    .forks(1)
+                    .warmupIterations(3)
+                    .warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(5)
+                    .measurementTime(TimeValue.seconds(1))
+                    .addProfiler(GCProfiler.class) // gc.alloc.rate.norm = bytes alocados por operação
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(output.resolve("threads-" + threads + ".json").toString())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+    // Padrão: 1 thread e uma por núcleo, para comparar o custo isolado com a escalabilidade sob concorrência
+    private static List<Integer> threadCounts(String property) {
+        List<Integer> counts = new ArrayList<>();
+        if (property.isBlank()) {
+            counts.add(1);
+            int cores = Runtime.getRuntime().availableProcessors();
+            if (cores > 1) {
+                counts.add(cores);
+            }
+            return counts;
+        }
+        for (String value : property.split(",")) {
+            counts.add(Integer.parseInt(value.trim()));
+        }
+        return counts;
+    }
+}
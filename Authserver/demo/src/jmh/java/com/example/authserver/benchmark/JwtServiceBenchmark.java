@@ -0,0 +1,122 @@
+package com.example.authserver.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.unit.DataSize;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.authserver.config.SecurityConfig;
+import com.example.authserver.service.AuthAuditLog;
+import com.example.authserver.service.AuthMetrics;
+import com.example.authserver.service.JwtIssuer;
+import com.example.authserver.service.JwtService;
+import com.example.authserver.service.TokenRevocationService;
+import com.example.authserver.validator.VerifiedTokenCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Emissão e verificação de tokens: JwtService, o decoder do resource server e as linhas de base sem cache.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "umaChaveSecretaMuitoLongaEComplexaParaAssinarTokensJWT";
+    static final long EXPIRATION = 3_600_000L;
+
+    private JwtService jwtService;
+    private JwtDecoder resourceServerDecoder;
+    private JwtDecoder nimbusDecoder;
+    private JWTVerifier verifier;
+    private Algorithm algorithm;
+    private String token;
+
+    @Setup
+    public void setup() {
+        algorithm = Algorithm.HMAC256(SECRET);
+        AuthMetrics metrics = new AuthMetrics(new SimpleMeterRegistry());
+        jwtService = new JwtService(JwtIssuer.hmac256(SECRET), EXPIRATION, VerifiedTokenCache.ofDecoded(10_000),
+                new TokenRevocationService(100_000, 0.01, Duration.ofMinutes(1)), metrics,
+                // Auditoria desligada: o custo dela é medido à parte no AuthAuditLogBenchmark
+                new AuthAuditLog(false, Path.of("."), 2, 1, Duration.ofSeconds(1), DataSize.ofKilobytes(1), 1, new SimpleMeterRegistry()));
+        resourceServerDecoder = new SecurityConfig().jwtDecoder(jwtService, metrics);
+        // Decoder original do SecurityConfig (antes do cache compartilhado), como referência
+        nimbusDecoder = NimbusJwtDecoder.withSecretKey(
+                new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSha256")).build();
+        verifier = JWT.require(algorithm).build();
+        token = jwtService.generateToken("user", "USER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("user", "USER");
+    }
+
+    @Benchmark
+    public String generateTokenJwtCreate() {
+        // Emissão anterior: JWT.create() com Jackson e duas Date (Algorithm já reutilizado)
+        return JWT.create()
+                .withSubject("user")
+                .withClaim("role", "USER")
+                .withJWTId("AAAAAAAAAAAAAAAAAAAAAA")
+                .withIssuedAt(new Date())
+                .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION))
+                .sign(algorithm);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token); // Acerto no cache de tokens verificados
+    }
+
+    @Benchmark
+    public DecodedJWT verifyUncached() {
+        return verifier.verify(token); // Custo de uma falta no cache: HMAC + parse do JSON
+    }
+
+    @Benchmark
+    public DecodedJWT verifyRebuildingVerifier() {
+        // Comportamento anterior do validateToken: recria Algorithm e verificador a cada chamada
+        return JWT.require(Algorithm.HMAC256(SECRET)).build().verify(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtService.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public Map<String, Object> getAllClaimsFromToken() {
+        return jwtService.getAllClaimsFromToken(token);
+    }
+
+    @Benchmark
+    public Jwt resourceServerDecode() {
+        return resourceServerDecoder.decode(token); // SecurityConfig.jwtDecoder()
+    }
+
+    @Benchmark
+    public Jwt nimbusDecode() {
+        return nimbusDecoder.decode(token);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.authserver.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.authserver.demo.DemoApplication;
+import com.example.authserver.dto.TokenPair;
+import com.example.authserver.model.User;
+import com.example.authserver.repository.UserRepository;
+import com.example.authserver.service.AuthService;
+import com.example.authserver.service.LoginActivityTracker;
+
+// Vazão do login com e sem o registro de atividade (auth.login-tracking.enabled):
+//   login  -> AuthService completo (cache de usuários, BCrypt de custo 4, emissão do token e do refresh token),
+//             com o flush de 1 s rodando em paralelo como em produção
+//   record -> só a fusão do evento no mapa do LoginActivityTracker
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LoginActivityBenchmark {
+
+    private static final int USERS = 1_000;
+
+    @Param({"false", "true"})
+    public boolean tracking;
+
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+    private LoginActivityTracker tracker;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--auth.bcrypt.strength=4", "--auth.audit.enabled=false",
+                        "--auth.rate-limit.user.capacity=1000000000", // O limitador não pode recusar os logins repetidos
+                        "--auth.login-tracking.enabled=" + tracking, "--auth.login-tracking.flush-interval=1s");
+        authService = context.getBean(AuthService.class);
+        tracker = context.getBean(LoginActivityTracker.class);
+        String hash = context.getBean(PasswordEncoder.class).encode("senha");
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User(null, "user" + i, hash, "USER"));
+        }
+        context.getBean(UserRepository.class).saveAll(users);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TokenPair login() {
+        return authService.authenticateUserAndGenerateToken("user" + ThreadLocalRandom.current().nextInt(USERS), "senha", null);
+    }
+
+    @Benchmark
+    public void record() {
+        tracker.loginSucceeded("user" + ThreadLocalRandom.current().nextInt(USERS));
+    }
+}
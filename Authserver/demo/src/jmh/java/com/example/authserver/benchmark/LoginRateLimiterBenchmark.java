@@ -0,0 +1,57 @@
+package com.example.authserver.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.authserver.service.LoginRateLimitedException;
+import com.example.authserver.service.LoginRateLimiter;
+
+// Custo de uma tentativa de login recusada pelo limitador (username bloqueado e endereço esgotado),
+// comparável ao BcryptBenchmark: é o que um ataque de credential stuffing passa a custar ao servidor.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoginRateLimiterBenchmark {
+
+    private LoginRateLimiter limiter;
+
+    @Setup
+    public void setup() {
+        limiter = new LoginRateLimiter(10, Duration.ofMinutes(1), 100, Duration.ofMinutes(1),
+                5, Duration.ofSeconds(1), Duration.ofMinutes(15), 100_000, Duration.ofMinutes(15));
+        for (int i = 0; i < 10; i++) {
+            limiter.recordFailure("vitima"); // Username já bloqueado
+        }
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire("user" + i, "203.0.113.7"); // Endereço sem tentativas restantes
+        }
+    }
+
+    @Benchmark
+    public Object rejectLockedUsername() {
+        try {
+            limiter.acquire("vitima", "198.51.100.1");
+            return null;
+        } catch (LoginRateLimitedException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object rejectExhaustedAddress() {
+        try {
+            limiter.acquire("user1", "203.0.113.7");
+            return null;
+        } catch (LoginRateLimitedException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.authserver.benchmark;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.web.FilterChainProxy;
+
+import com.example.authserver.config.SecurityConfig;
+import com.example.authserver.demo.DemoApplication;
+import com.example.authserver.service.JwtService;
+
+import jakarta.servlet.FilterChain;
+
+// Custo do lado do resource server por requisição autenticada:
+//   convertDefault / convertRole -> Jwt -> Authentication (conversor padrão do Spring x claim "role" pré-computada)
+//   filterChain                  -> cadeia de filtros completa do Spring Security com Bearer token (token já no cache
+//                                   de verificados, como no estado estável), até o ponto em que o controller seria chamado
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SecurityFilterChainBenchmark {
+
+    private static final FilterChain CONTROLLER = (request, response) -> { };
+
+    @Param({"true", "false"})
+    public boolean securityObservations; // management.observations.enable.spring.security
+
+    private ConfigurableApplicationContext context;
+    private FilterChainProxy filterChainProxy;
+    private Converter<Jwt, AbstractAuthenticationToken> defaultConverter;
+    private Converter<Jwt, AbstractAuthenticationToken> roleConverter;
+    private Jwt jwt;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0", "--spring.jpa.show-sql=false", "--auth.bcrypt.strength=4",
+                        "--management.observations.enable.spring.security=" + securityObservations);
+        filterChainProxy = context.getBean(FilterChainProxy.class);
+        authorization = "Bearer " + context.getBean(JwtService.class).generateToken("admin", "ADMIN");
+
+        defaultConverter = new JwtAuthenticationConverter();
+        roleConverter = new SecurityConfig().jwtAuthenticationConverter();
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("admin")
+                .claim("role", "ADMIN")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convertDefault() {
+        return defaultConverter.convert(jwt);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convertRole() {
+        return roleConverter.convert(jwt);
+    }
+
+    @Benchmark
+    public int filterChain() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filterChainProxy.doFilter(request, response, CONTROLLER);
+        return response.getStatus();
+    }
+}
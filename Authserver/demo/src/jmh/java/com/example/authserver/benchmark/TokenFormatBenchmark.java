@@ -0,0 +1,91 @@
+package com.example.authserver.benchmark;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.util.unit.DataSize;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.authserver.config.SecurityConfig;
+import com.example.authserver.service.AuthAuditLog;
+import com.example.authserver.service.AuthMetrics;
+import com.example.authserver.service.JwtIssuer;
+import com.example.authserver.service.JwtService;
+import com.example.authserver.service.TokenRevocationService;
+import com.example.authserver.validator.VerifiedTokenCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Formato padrão x compacto (jwt.format), com as mesmas claims de um token de login:
+//   issue        -> emissão pelo JwtIssuer
+//   parse        -> JWT.decode: Base64URL + JSON de cabeçalho e payload, sem assinatura
+//   verify       -> verificação completa sem cache (parse + HMAC + exp), o custo do primeiro uso em cada nó
+//   authenticate -> decoder do resource server (acerto no cache de verificados) + conversão da role em authorities
+// O tamanho do token (bytes no cabeçalho Authorization) é impresso no setup de cada formato.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TokenFormatBenchmark {
+
+    @Param({"STANDARD", "COMPACT"})
+    public JwtIssuer.Format format;
+
+    private JwtIssuer issuer;
+    private JWTVerifier verifier;
+    private JwtDecoder resourceServerDecoder;
+    private Converter<Jwt, AbstractAuthenticationToken> roleConverter;
+    private long issuedAt;
+    private String token;
+
+    @Setup
+    public void setup() {
+        issuer = JwtIssuer.hmac256(JwtServiceBenchmark.SECRET, format);
+        verifier = JWT.require(issuer.algorithm()).build();
+        AuthMetrics metrics = new AuthMetrics(new SimpleMeterRegistry());
+        JwtService jwtService = new JwtService(issuer, JwtServiceBenchmark.EXPIRATION, VerifiedTokenCache.ofDecoded(10_000),
+                new TokenRevocationService(100_000, 0.01, Duration.ofMinutes(1)), metrics,
+                new AuthAuditLog(false, Path.of("."), 2, 1, Duration.ofSeconds(1), DataSize.ofKilobytes(1), 1, new SimpleMeterRegistry()));
+        SecurityConfig securityConfig = new SecurityConfig();
+        resourceServerDecoder = securityConfig.jwtDecoder(jwtService, metrics);
+        roleConverter = securityConfig.jwtAuthenticationConverter();
+        issuedAt = System.currentTimeMillis() / 1000;
+        token = jwtService.generateToken("admin", "ADMIN");
+        System.out.println("📏 " + format + ": " + token.length() + " bytes (\"Authorization: Bearer \" + token = "
+                + ("Authorization: Bearer ".length() + token.length()) + ")");
+    }
+
+    @Benchmark
+    public String issue() {
+        return issuer.issue("admin", "ADMIN", "q8Xk2v0yZr4bL1nA9sQe7w", issuedAt, issuedAt + 3600);
+    }
+
+    @Benchmark
+    public DecodedJWT parse() {
+        return JWT.decode(token);
+    }
+
+    @Benchmark
+    public DecodedJWT verify() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken authenticate() {
+        return roleConverter.convert(resourceServerDecoder.decode(token));
+    }
+}
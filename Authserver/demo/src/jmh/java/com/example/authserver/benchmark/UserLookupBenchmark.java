@@ -0,0 +1,82 @@
+package com.example.authserver.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import com.example.authserver.demo.DemoApplication;
+import com.example.authserver.model.User;
+import com.example.authserver.model.UserCredentials;
+import com.example.authserver.repository.UserRepository;
+
+// Consulta do usuário no login (o que o UserCredentialsCache faz a cada miss), no profile prod com banco em arquivo:
+//   entity     -> findByUsername + UserCredentials.from (antes: entidade gerenciada, snapshot e contexto de persistência)
+//   projection -> findCredentialsByUsername (depois: record montado direto do ResultSet)
+// queryCacheSize é o QUERY_CACHE_SIZE do H2 (comandos preparados por sessão); 0 desliga o cache.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserLookupBenchmark {
+
+    private static final int USERS = 10_000;
+    // Hash fixo: o BCrypt não faz parte do que é medido aqui
+    private static final String HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3tT6JhQ2YtJc9n3rWQ6o1y2";
+
+    @Param({"entity", "projection"})
+    public String lookup;
+
+    @Param({"0", "64"})
+    public int queryCacheSize;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private Path dataDir;
+
+    @Setup
+    public void setup() throws IOException {
+        dataDir = Files.createTempDirectory("authserver-bench");
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("prod")
+                .run("--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("authserver") + ";QUERY_CACHE_SIZE=" + queryCacheSize,
+                        "--jwt.secret=segredoDoBenchmarkDeConsultaDeUsuariosComMaisDe32Caracteres");
+        userRepository = context.getBean(UserRepository.class);
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User(null, "user" + i, HASH, i % 10 == 0 ? "ADMIN" : "USER"));
+        }
+        userRepository.saveAll(users);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public UserCredentials findUser() {
+        String username = "user" + ThreadLocalRandom.current().nextInt(USERS);
+        return "entity".equals(lookup)
+                ? userRepository.findByUsername(username).map(UserCredentials::from).orElseThrow()
+                : userRepository.findCredentialsByUsername(username).orElseThrow();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.authserver.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.authserver.service.JwtIssuer;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Rajada de requisições simultâneas no formato do login já cacheado (conexão do pool, consulta do usuário,
+// latência de rede simulada do banco e assinatura do token), atendidas por:
+//   platform -> pool fixo de 200 threads, como o Tomcat padrão (server.tomcat.threads.max)
+//   virtual  -> uma virtual thread por requisição (spring.threads.virtual.enabled=true)
+// Nos dois modos o pool JDBC limita a concorrência no banco; o que muda é o custo de esperar por ele.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Threads(1) // A concorrência vem da rajada, não das threads do JMH
+public class VirtualThreadBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"200", "1000"})
+    public int clients; // Requisições simultâneas em cada rajada
+
+    @Param({"20"})
+    public int poolSize; // spring.datasource.hikari.maximum-pool-size
+
+    @Param({"1"})
+    public int dbLatencyMillis; // Ida e volta até o banco, simulada com a conexão em uso
+
+    private HikariDataSource dataSource;
+    private ExecutorService executor;
+    private JwtIssuer issuer;
+
+    @Setup
+    public void setup() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:vthreads;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        dataSource = new HikariDataSource(config);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS users (username VARCHAR(255) PRIMARY KEY, password VARCHAR(255), role VARCHAR(255))");
+            statement.execute("MERGE INTO users KEY (username) VALUES ('user', '$2a$10$hash', 'USER')");
+        }
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        issuer = JwtIssuer.hmac256(JwtServiceBenchmark.SECRET);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<String>> results = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            results.add(executor.submit(this::request));
+        }
+        int length = 0;
+        for (Future<String> result : results) {
+            length += result.get().length();
+        }
+        return length;
+    }
+
+    private String request() throws SQLException {
+        String role;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT role FROM users WHERE username = ?")) {
+            statement.setString(1, "user");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                role = resultSet.getString(1);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(dbLatencyMillis));
+        }
+        long now = System.currentTimeMillis() / 1000;
+        return issuer.issue("user", role, "jti", now, now + 3600);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.authserver.config;
+
+import java.time.Duration;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// Mede o tempo do BCrypt nesta máquina e escolhe o maior custo (strength) que cabe no orçamento de latência do login.
+// Cada ponto de custo dobra o tempo de hash, então a busca para no primeiro custo que estoura o orçamento.
+final class BcryptCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibracao-bcrypt";
+    private static final int SAMPLES = 3; // Usa o menor tempo entre as amostras para descontar ruído (GC, JIT)
+
+    private BcryptCostCalibrator() {
+    }
+
+    static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        // Aquecimento: a primeira execução inclui carga de classes e JIT
+        new BCryptPasswordEncoder(minStrength).encode(SAMPLE_PASSWORD);
+
+        int chosen = minStrength; // O mínimo é um piso de segurança, mesmo que estoure o orçamento
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            long nanos = measure(strength);
+            if (nanos > targetLatency.toNanos()) {
+                break;
+            }
+            chosen = strength;
+            // O próximo custo levaria ~2x mais: se já não cabe, evita medir à toa
+            if (nanos * 2 > targetLatency.toNanos()) {
+                break;
+            }
+        }
+        return chosen;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
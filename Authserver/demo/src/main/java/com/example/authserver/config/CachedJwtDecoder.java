@@ -0,0 +1,64 @@
+package com.example.authserver.config;
+
+import java.util.Map;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.authserver.service.AuthMetrics;
+import com.example.authserver.service.JwtService;
+import com.example.authserver.validator.TokenValidator;
+
+// JwtDecoder do resource server que delega a verificação ao JwtService.
+// Assim o mesmo verificador e o mesmo cache de tokens verificados atendem /auth/validate e as rotas /api/**.
+class CachedJwtDecoder implements JwtDecoder {
+
+    private final JwtService jwtService;
+    private final AuthMetrics authMetrics;
+
+    CachedJwtDecoder(JwtService jwtService, AuthMetrics authMetrics) {
+        this.jwtService = jwtService;
+        this.authMetrics = authMetrics;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        long start = System.nanoTime();
+        DecodedJWT decoded;
+        try {
+            decoded = jwtService.verifyToken(token);
+        } catch (JWTVerificationException e) {
+            authMetrics.recordDecode(TokenValidator.failureReason(e), System.nanoTime() - start);
+            // BadJwtException faz o Spring Security responder 401 (mesmo comportamento do NimbusJwtDecoder)
+            throw new BadJwtException("Token inválido: " + e.getMessage(), e);
+        }
+        Jwt.Builder builder = Jwt.withTokenValue(token)
+                .header("alg", decoded.getAlgorithm())
+                .claims(claims -> copyClaims(decoded, claims));
+        if (decoded.getType() != null) {
+            builder.header("typ", decoded.getType()); // Ausente no formato compacto
+        }
+        Jwt jwt = builder.build();
+        authMetrics.recordDecode("valid", System.nanoTime() - start);
+        return jwt;
+    }
+
+    private static void copyClaims(DecodedJWT decoded, Map<String, Object> target) {
+        for (Map.Entry<String, Claim> entry : decoded.getClaims().entrySet()) {
+            String name = entry.getKey();
+            Claim claim = entry.getValue();
+            // Claims de data viram Instant, como o Spring espera em Jwt#getExpiresAt/getIssuedAt
+            if (JwtClaimNames.EXP.equals(name) || JwtClaimNames.IAT.equals(name) || JwtClaimNames.NBF.equals(name)) {
+                target.put(name, claim.asInstant());
+            } else {
+                target.put(name, claim.as(Object.class));
+            }
+        }
+    }
+}
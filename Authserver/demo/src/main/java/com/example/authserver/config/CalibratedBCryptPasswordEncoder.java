@@ -0,0 +1,46 @@
+package com.example.authserver.config;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// BCryptPasswordEncoder que pede rehash de hashes abaixo da política atual: custo menor que o calibrado
+// ou versão do formato BCrypt mais antiga ($2$). Custos maiores nunca são rebaixados: cada nó calibra o
+// próprio custo, e nós com custos diferentes ficariam refazendo o hash dos mesmos usuários um do outro.
+// Diferente do BCryptPasswordEncoder padrão, um hash que não é BCrypt não gera exceção.
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$(2[aby]?)\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+    // Ordem das versões do formato: $2$ (original) < $2a$ < $2b$ = $2y$ (mesmo algoritmo, correções de implementação)
+    private static final List<String> VERSIONS = List.of("2", "2a", "2b");
+    private static final int CURRENT_VERSION = rank(BCryptVersion.$2A.getVersion().substring(1, 3));
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(BCryptVersion.$2A, strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false; // Não é BCrypt: o login já falharia no matches, não há o que atualizar
+        }
+        return rank(matcher.group(1)) < CURRENT_VERSION || Integer.parseInt(matcher.group(2)) < strength;
+    }
+
+    private static int rank(String version) {
+        return VERSIONS.indexOf("2y".equals(version) ? "2b" : version);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.authserver.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.authserver.service.JwtIssuer;
+import com.example.authserver.service.JwtKeyRing;
+import com.example.authserver.validator.VerifiedTokenCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Define como os tokens são assinados e verificados:
+// jwt.signing.mode=hmac (padrão) usa o segredo compartilhado jwt.secret com HMAC256;
+// jwt.signing.mode=asymmetric usa o key ring de jwt.keys.dir (RS256/ES256), publicado em /.well-known/jwks.json.
+// jwt.format escolhe o formato dos tokens emitidos (standard ou compact); a verificação aceita os dois.
+// O cache de tokens verificados é o mesmo do token-validator embutido nos serviços consumidores.
+@Configuration
+public class JwtSigningConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "jwt.signing.mode", havingValue = "asymmetric")
+    public JwtKeyRing jwtKeyRing(@Value("${jwt.keys.dir}") Path directory,
+                                 @Value("${jwt.keys.algorithm:RS256}") JwtKeyRing.KeyAlgorithm algorithm,
+                                 @Value("${jwt.keys.active-kid:}") String activeKid,
+                                 @Value("${jwt.keys.reload-interval:30s}") Duration reloadInterval,
+                                 ObjectMapper objectMapper) {
+        return new JwtKeyRing(directory, algorithm, activeKid, reloadInterval, objectMapper);
+    }
+
+    @Bean
+    public JwtIssuer jwtIssuer(@Value("${jwt.secret}") String secret,
+                               @Value("${jwt.format:standard}") JwtIssuer.Format format,
+                               ObjectProvider<JwtKeyRing> keyRing) {
+        // Criado uma única vez: o Algorithm é imutável e thread-safe (no modo assimétrico o issuer consulta o key ring a cada token)
+        JwtKeyRing ring = keyRing.getIfAvailable();
+        return ring != null ? JwtIssuer.signedBy(ring, format) : JwtIssuer.hmac256(secret, format);
+    }
+
+    // Tokens já verificados neste nó, compartilhado por /auth/validate e pelo JwtDecoder do resource server
+    @Bean
+    public VerifiedTokenCache<DecodedJWT> verifiedTokenCache(@Value("${jwt.cache.max-entries:10000}") long maxEntries) {
+        return VerifiedTokenCache.ofDecoded(maxEntries);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.authserver.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.example.authserver.model.UserCacheInvalidationListener;
+import com.example.authserver.model.UserCredentials;
+
+// Reflexão e recursos que a imagem nativa (mvn -Pnative native:compile) não descobre sozinha.
+// O restante vem do processamento AOT do Spring, das dicas do próprio springdoc (SpringDocHints)
+// e do repositório de metadados do GraalVM (Hibernate, H2, Caffeine, Flyway).
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeRuntimeHints.class)
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    // java-jwt lê header e payload com o Jackson por meio destes (de)serializadores e TypeReferences anônimos
+    static final String[] JAVA_JWT_TYPES = {
+            "com.auth0.jwt.impl.JWTParser",
+            "com.auth0.jwt.impl.HeaderDeserializer",
+            "com.auth0.jwt.impl.HeaderDeserializer$1",
+            "com.auth0.jwt.impl.PayloadDeserializer",
+            "com.auth0.jwt.impl.PayloadDeserializer$1",
+            "com.auth0.jwt.impl.HeaderSerializer",
+            "com.auth0.jwt.impl.PayloadSerializer",
+            "com.auth0.jwt.impl.ClaimsSerializer",
+            "com.auth0.jwt.impl.ClaimsHolder",
+            "com.auth0.jwt.impl.HeaderClaimsHolder",
+            "com.auth0.jwt.impl.PayloadClaimsHolder",
+            "com.auth0.jwt.impl.BasicHeader",
+            "com.auth0.jwt.impl.PayloadImpl",
+            "com.auth0.jwt.impl.JsonNodeClaim",
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JAVA_JWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        // Hibernate: "select new UserCredentials(...)" chama o construtor por reflexão, e os callbacks
+        // (@PostPersist/@PostUpdate/@PostRemove) do entity listener são localizados e chamados por reflexão
+        hints.reflection().registerType(UserCredentials.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.reflection().registerType(UserCacheInvalidationListener.class,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+
+        // springdoc: arquivos do Swagger UI e a versão do webjar (lida do pom.properties para montar o caminho)
+        hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+        hints.resources().registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+
+        // Migrações do profile prod
+        hints.resources().registerPattern("db/migration/*.sql");
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.authserver.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.example.authserver.validator.TokenRoles;
+
+// Converte o Jwt do resource server em autenticação a partir da claim "role" emitida pelo JwtService, ou do código "r"
+// dos tokens compactos (o conversor padrão só lê scope/scp). Cada role tem uma única lista imutável de authorities (ROLE_<role>),
+// criada uma vez e compartilhada por todas as requisições: a conversão é uma consulta ao mapa e um JwtAuthenticationToken.
+class RoleJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    static final String ROLE_CLAIM = TokenRoles.ROLE_CLAIM;
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    // Roles vêm de tokens assinados por nós, então o conjunto é pequeno e fechado; as da tabela do TokenRoles
+    // (as mesmas que têm código no formato compacto) já nascem no mapa
+    private final Map<String, List<GrantedAuthority>> authoritiesByRole = new ConcurrentHashMap<>();
+
+    RoleJwtAuthenticationConverter() {
+        for (String role : TokenRoles.roles()) {
+            authoritiesByRole.put(role, authoritiesFor(role));
+        }
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        // Leitura direta do mapa: getClaimAsString passaria pelo ConversionService a cada requisição
+        Map<String, Object> claims = jwt.getClaims();
+        Object role = claims.get(ROLE_CLAIM);
+        if (role instanceof String name) {
+            return new JwtAuthenticationToken(jwt, authorities(name), jwt.getSubject());
+        }
+        String coded = claims.get(TokenRoles.CODE_CLAIM) instanceof Number code ? TokenRoles.name(code.intValue()) : null;
+        return new JwtAuthenticationToken(jwt, coded != null ? authorities(coded) : AuthorityUtils.NO_AUTHORITIES,
+                jwt.getSubject());
+    }
+
+    List<GrantedAuthority> authorities(String role) {
+        List<GrantedAuthority> authorities = authoritiesByRole.get(role);
+        return authorities != null ? authorities : authoritiesByRole.computeIfAbsent(role, RoleJwtAuthenticationConverter::authoritiesFor);
+    }
+
+    private static List<GrantedAuthority> authoritiesFor(String role) {
+        return List.of(new SimpleGrantedAuthority(ROLE_PREFIX + role));
+    }
+}
@@ -1,27 +1,31 @@
 package com.example.authserver.config;
 
-import java.nio.charset.StandardCharsets;
-
-import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 import com.example.authserver.model.User;
 import com.example.authserver.repository.UserRepository;
+import com.example.authserver.service.AuthMetrics;
+import com.example.authserver.service.JwtService;
+import com.example.authserver.service.UserCredentialsCache;
 
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -29,24 +33,29 @@ import org.springframework.security.config.annotation.authentication.configurati
 @SuppressWarnings("unused")
 @Configuration
 @EnableWebSecurity 
+@EnableMethodSecurity // Ativa os @PreAuthorize dos controllers (ex.: hasRole('ADMIN') em /api/admin)
 
 public class SecurityConfig {
-    
-     @Value("${jwt.secret}")
-    private String jwtSecret;
      
      @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:0}") int strength,
+                                           @Value("${auth.bcrypt.target-latency:50ms}") Duration targetLatency,
+                                           @Value("${auth.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${auth.bcrypt.max-strength:16}") int maxStrength) {
+        // strength fixo (> 0) desliga a calibração; caso contrário mede o BCrypt nesta máquina na inicialização
+        int chosen = strength > 0 ? strength : BcryptCostCalibrator.calibrate(targetLatency, minStrength, maxStrength);
+        System.out.println("🔑 BCrypt configurado com custo " + chosen + " (orçamento por login: " + targetLatency.toMillis() + " ms).");
+        // Hashes com custo menor ou versão antiga são atualizados no próximo login bem-sucedido (ver AuthService)
+        return new CalibratedBCryptPasswordEncoder(chosen);
     }
     
     @Bean
-    public UserDetailsService userDetailsService(UserRepository userRepository) {
-        return username -> userRepository.findByUsername(username) // Tenta encontrar o usuário pelo username
+    public UserDetailsService userDetailsService(UserCredentialsCache userCredentialsCache) {
+        return username -> userCredentialsCache.findByUsername(username) // Tenta encontrar o usuário pelo username (mesmo cache do AuthService)
                 .map(user -> org.springframework.security.core.userdetails.User.builder() // Se encontrar, constrói um User do Spring Security
-                        .username(user.getUsername())
-                        .password(user.getPassword()) // A senha já está codificada no DB
-                        .roles(user.getRole()) // Define a(s) role(s) do usuário
+                        .username(user.username())
+                        .password(user.passwordHash()) // A senha já está codificada no DB
+                        .roles(user.role()) // Define a(s) role(s) do usuário
                         .build())
                 // Se o usuário não for encontrado, lança uma exceção
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
@@ -54,12 +63,16 @@ public class SecurityConfig {
 
 
      @Bean
-    public JwtDecoder jwtDecoder() {
-        // A chave secreta do application.yml é usada para criar uma chave simétrica para HMAC SHA256
-        SecretKeySpec secretKey = new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), "HmacSha256");
-        // Retorna uma instância de NimbusJwtDecoder que fará a validação da assinatura do JWT
-        return NimbusJwtDecoder.withSecretKey(secretKey).build();
+    public JwtDecoder jwtDecoder(JwtService jwtService, AuthMetrics authMetrics) {
+        // Reutiliza o verificador do JwtService (HMAC256 ou key ring assimétrico) e o seu cache de tokens verificados,
+        // para que cada token seja verificado uma única vez por nó
+        return new CachedJwtDecoder(jwtService, authMetrics);
     }
+    // Claim "role" (ou o código "r" dos tokens compactos) -> ROLE_<role>, com as listas de authorities pré-computadas por role
+    public Converter<Jwt, AbstractAuthenticationToken> jwtAuthenticationConverter() {
+        return new RoleJwtAuthenticationConverter();
+    }
+
     // Bean para SecurityFilterChain: Configura as regras de segurança HTTP da aplicação
     @SuppressWarnings("removal")
     @Bean
@@ -73,9 +86,16 @@ public class SecurityConfig {
             // Configura as regras de autorização para as requisições HTTP
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/auth/login").permitAll() // Permite acesso público ao endpoint de login
+                .requestMatchers("/auth/refresh").permitAll() // Renovação: autenticada pelo próprio refresh token
                 .requestMatchers("/auth/validate").permitAll() // Permite acesso público ao endpoint de validação de token
+                .requestMatchers("/auth/validate/batch", "/auth/validate/stream").permitAll() // Validação em lote e em streaming (NDJSON)
+                .requestMatchers("/auth/revoke").permitAll() // Revogação: quem possui o token pode invalidá-lo (logout)
+                .requestMatchers("/auth/introspect").permitAll() // Introspecção de token (RFC 7662)
+                .requestMatchers("/.well-known/jwks.json").permitAll() // Chaves públicas (modo de assinatura assimétrica)
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll() // Health check e coleta de métricas
                 .requestMatchers("/h2-console/**").permitAll() // Permite acesso público ao console do H2 Database
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll() // Permite acesso público à documentação Swagger/OpenAPI
+                .requestMatchers("/api/admin/**").hasRole("ADMIN") // Administração (ex.: importação de usuários), além do @PreAuthorize
                 .anyRequest().authenticated() // Qualquer outra requisição exige que o usuário esteja autenticado com um JWT válido
             )
             // Configura cabeçalhos para permitir que o H2 console funcione dentro de um frame (iframe)
@@ -85,6 +105,8 @@ public class SecurityConfig {
             // e valide o token usando o JwtDecoder configurado.
             .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> {
                 // Ao chamar .jwt(), o Spring Security usará o JwtDecoder que definimos como um Bean.
+                // As authorities vêm da role do token (o conversor padrão só conhece scope/scp)
+                jwt.jwtAuthenticationConverter(jwtAuthenticationConverter());
             }));
 
         // Constrói e retorna a cadeia de filtros de segurança configurada
@@ -94,7 +116,9 @@ public class SecurityConfig {
 
     // CommandLineRunner: Um bean que é executado uma vez quando a aplicação Spring Boot inicia.
     // Usado aqui para popular o banco de dados H2 com usuários iniciais (admin e user) se eles não existirem.
+    // Fora do profile prod: em produção os usuários vêm da importação em massa, nunca de senhas fixas no código.
     @Bean
+    @Profile("!prod")
     public CommandLineRunner initData(UserRepository userRepository, PasswordEncoder passwordEncoder) {
         return args -> {
             // Verifica se o usuário 'admin' já existe. Se não, cria.
@@ -0,0 +1,50 @@
+package com.example.authserver.config;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.authserver.dto.UserImportReport;
+import com.example.authserver.service.UserImportService;
+
+// Importação em massa pela linha de comando, sem subir o servidor web:
+//   java -jar demo.jar --spring.main.web-application-type=none --import-users=contas.csv
+// O formato vem da extensão (.csv ou .ndjson/.jsonl). Ao terminar, imprime o relatório e a aplicação encerra.
+@Component
+@ConditionalOnProperty(name = "import-users")
+public class UserImportRunner implements ApplicationRunner {
+
+    private final UserImportService userImportService;
+    private final Path file;
+
+    public UserImportRunner(UserImportService userImportService, @Value("${import-users}") Path file) {
+        this.userImportService = userImportService;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long start = System.nanoTime();
+        UserImportReport report;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            report = userImportService.importUsers(reader, UserImportService.Format.fromFileName(file.toString()));
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("📥 Importação de " + file + ": " + report.imported() + " de " + report.total()
+                + " usuários importados em " + millis + " ms (" + report.failed() + " com erro).");
+        for (UserImportReport.RowError error : report.errors()) {
+            System.out.println("   linha " + error.line() + (error.username() == null ? "" : " (" + error.username() + ")")
+                    + ": " + error.error());
+        }
+        if (report.errorsTruncated()) {
+            System.out.println("   ... demais erros omitidos (auth.import.max-reported-errors).");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.authserver.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+// Detecta virtual threads fixadas (pinned) na carrier, via o evento JFR jdk.VirtualThreadPinned.
+// Cada ocorrência acima do limite vira um registro no timer auth.vthread.pinned, classificado pelo trecho da pilha
+// (repository: JPA/Hibernate/Hikari/H2; security: Spring Security, java-jwt, JCA/JCE e as classes de JWT/BCrypt da
+// aplicação; other),
+// e o primeiro caso de cada ponto do código é logado com a pilha resumida.
+// Só é criado no modo de virtual threads (spring.threads.virtual.enabled=true).
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_LOCATIONS = 100;
+    private static final int LOGGED_FRAMES = 8;
+
+    private static final List<String> REPOSITORY_PACKAGES = List.of("com.example.authserver.repository.",
+            "org.springframework.data.", "org.springframework.orm.", "org.hibernate.", "com.zaxxer.hikari.", "org.h2.");
+    // Só frames que de fato fazem segurança/criptografia: os pacotes service/config inteiros da aplicação também passam
+    // por cache, auditoria e importação, e classificá-los como security escondia a origem real da fixação
+    private static final List<String> SECURITY_PACKAGES = List.of("org.springframework.security.", "com.auth0.jwt.",
+            "java.security.", "javax.crypto.", "sun.security.", "com.sun.crypto.provider.",
+            "com.example.authserver.validator.", "com.example.authserver.service.Jwt",
+            "com.example.authserver.service.TokenRevocationService",
+            "com.example.authserver.service.PasswordHashingExecutor",
+            "com.example.authserver.config.CachedJwtDecoder", "com.example.authserver.config.CalibratedBCryptPasswordEncoder",
+            "com.example.authserver.config.RoleJwtAuthenticationConverter");
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Set<String> loggedLocations = ConcurrentHashMap.newKeySet();
+    private final RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry,
+                                       @Value("${auth.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.registry = registry;
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String path = classify(frames);
+        timers.computeIfAbsent(path, key -> Timer.builder("auth.vthread.pinned")
+                        .description("Tempo em que uma virtual thread ficou presa à carrier")
+                        .tag("path", key)
+                        .register(registry))
+              .record(event.getDuration());
+
+        String location = firstApplicationFrame(frames);
+        if (loggedLocations.size() < MAX_LOGGED_LOCATIONS && loggedLocations.add(location)) {
+            System.err.println("⚠️ Virtual thread fixada na carrier por " + event.getDuration().toMillis() + " ms (trecho: "
+                    + path + ", em " + location + "):\n" + summarize(frames));
+        }
+    }
+
+    // Total de fixações registradas (todos os trechos)
+    public long pinnedCount() {
+        return timers.values().stream().mapToLong(Timer::count).sum();
+    }
+
+    private static String classify(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (REPOSITORY_PACKAGES.stream().anyMatch(type::startsWith)) {
+                return "repository";
+            }
+            if (SECURITY_PACKAGES.stream().anyMatch(type::startsWith)) {
+                return "security";
+            }
+        }
+        return "other";
+    }
+
+    private static String firstApplicationFrame(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return frames.isEmpty() ? "desconhecido" : frames.get(0).getMethod().getType().getName();
+    }
+
+    private static String summarize(List<RecordedFrame> frames) {
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < Math.min(frames.size(), LOGGED_FRAMES); i++) {
+            RecordedFrame frame = frames.get(i);
+            summary.append("    at ").append(frame.getMethod().getType().getName()).append('.')
+                   .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber()).append('\n');
+        }
+        return summary.toString();
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        stream.close();
+    }
+}
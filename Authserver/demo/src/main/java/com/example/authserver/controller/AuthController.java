@@ -1,15 +1,41 @@
 package com.example.authserver.controller;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.authserver.dto.IntrospectionResponse;
+import com.example.authserver.dto.TokenPair;
+import com.example.authserver.dto.TokenValidationResult;
 import com.example.authserver.service.AuthService;
 import com.example.authserver.service.JwtService;
+import com.example.authserver.service.LoginOverloadedException;
+import com.example.authserver.service.LoginRateLimitedException;
+import com.example.authserver.service.TokenClaims;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -24,33 +50,78 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class AuthController {
 
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    // O corpo continua sendo só o JWT (compatível com os clientes atuais); o refresh token vai neste cabeçalho
+    public static final String REFRESH_TOKEN_HEADER = "X-Refresh-Token";
+
     private final AuthService authService;
     private final JwtService jwtService;
+    private final ObjectMapper objectMapper; // Serializa cada linha da resposta NDJSON
+    private final int maxBatchSize; // Limite de tokens por requisição no endpoint de lote
 
-      public AuthController(AuthService authService, JwtService jwtService) {
+      public AuthController(AuthService authService, JwtService jwtService, ObjectMapper objectMapper,
+                            @Value("${jwt.batch.max-size:1000}") int maxBatchSize) {
         this.authService = authService;
         this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.maxBatchSize = maxBatchSize;
     }
 
       @Operation(summary = "Realiza o login do usuário e emite um token JWT") // Descrição para o Swagger
     @ApiResponses(value = { // Descreve as possíveis respostas HTTP para este endpoint
-        @ApiResponse(responseCode = "200", description = "Login bem-sucedido, retorna o token JWT"),
-        @ApiResponse(responseCode = "401", description = "Credenciais inválidas")
+        @ApiResponse(responseCode = "200", description = "Login bem-sucedido, retorna o token JWT (refresh token no cabeçalho X-Refresh-Token)"),
+        @ApiResponse(responseCode = "401", description = "Credenciais inválidas"),
+        @ApiResponse(responseCode = "429", description = "Tentativas demais para o usuário ou endereço; tente novamente após o tempo em Retry-After"),
+        @ApiResponse(responseCode = "503", description = "Servidor sobrecarregado, tente novamente após o tempo em Retry-After")
     })
      @PostMapping("/login") // Mapeia requisições POST para /auth/login
-    public ResponseEntity<String> login(@RequestParam String username, @RequestParam String Stringpassword) {
+    public ResponseEntity<String> login(@RequestParam String username, @RequestParam String password,
+                                        HttpServletRequest request) {
         try {
             // Tenta autenticar o usuário e gerar um token usando o AuthService
-            String token = authService.authenticateUserAndGenerateToken(username, Stringpassword);
-            return ResponseEntity.ok(token); // Se sucesso, retorna o token com status 200 OK
+            // O endereço do cliente alimenta o limite por IP (atrás de proxy, configure server.forward-headers-strategy)
+            TokenPair tokens = authService.authenticateUserAndGenerateToken(username, password, request.getRemoteAddr());
+            return tokenResponse(tokens); // Se sucesso, retorna o token com status 200 OK
         } catch (BadCredentialsException e) {
             // Se as credenciais forem inválidas (username ou password), retorna 401 Unauthorized
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        } catch (LoginRateLimitedException e) {
+            // Limite de tentativas atingido: recusado antes do BCrypt, com o tempo até a próxima tentativa aceita
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                    .body(e.getMessage());
+        } catch (LoginOverloadedException e) {
+            // Pool de BCrypt saturado: falha rápido e indica ao cliente quando tentar de novo
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                    .body(e.getMessage());
         } catch (Exception e) {
             // Captura qualquer outro erro inesperado e retorna 500 Internal Server Error
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Ocorreu um erro interno ao tentar logar.");
         }
     }
+
+    @Operation(summary = "Renova a sessão com um refresh token de uso único (sem reenviar a senha)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Novo token JWT no corpo e novo refresh token no cabeçalho X-Refresh-Token"),
+        @ApiResponse(responseCode = "401", description = "Refresh token inválido, expirado ou já utilizado (reuso revoga a sessão inteira)")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<String> refresh(@RequestParam("refresh_token") String refreshToken) {
+        try {
+            return tokenResponse(authService.refresh(refreshToken));
+        } catch (BadCredentialsException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<String> tokenResponse(TokenPair tokens) {
+        return ResponseEntity.ok()
+                .header(REFRESH_TOKEN_HEADER, tokens.refreshToken())
+                .cacheControl(CacheControl.noStore()) // Credenciais não devem ficar em caches intermediários
+                .body(tokens.accessToken());
+    }
+
     @Operation(summary = "Valida um token JWT (útil para debug e verificação externa)") // Descrição para o Swagger
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Token válido"),
@@ -58,15 +129,106 @@ public class AuthController {
     })
     @PostMapping("/validate") // Mapeia requisições POST para /auth/validate
     public ResponseEntity<String> validateToken(@RequestParam String token) {
-        // Usa o JwtService para verificar se o token é válido
-        if (jwtService.validateToken(token)) {
-            // Se válido, retorna 200 OK e o username extraído do token (para demonstração)
-            return ResponseEntity.ok("Token válido! Username: " + jwtService.getUsernameFromToken(token));
-        } else {
-            // Se inválido (expirado, assinatura incorreta, etc.), retorna 401 Unauthorized
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Token inválido ou expirado.");
+        // Usa o JwtService para verificar o token uma única vez e reaproveita as claims já decodificadas
+        return jwtService.decodeVerified(token)
+                // Se válido, retorna 200 OK e o username extraído do token (para demonstração)
+                .map(jwt -> ResponseEntity.ok("Token válido! Username: " + jwt.getSubject()))
+                // Se inválido (expirado, assinatura incorreta, etc.), retorna 401 Unauthorized
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Token inválido ou expirado."));
+    }
+
+    @Operation(summary = "Revoga um token JWT antes da expiração (pelo seu jti)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Token revogado: deixa de ser aceito em /auth/validate e nas rotas /api/**"),
+        @ApiResponse(responseCode = "400", description = "Token inválido, expirado ou sem jti")
+    })
+    @PostMapping("/revoke")
+    public ResponseEntity<String> revoke(@RequestParam String token) {
+        if (jwtService.revokeToken(token)) {
+            return ResponseEntity.ok("Token revogado.");
         }
+        return ResponseEntity.badRequest().body("Token inválido, expirado ou sem jti.");
     }
-}
 
+    @Operation(summary = "Introspecção de token no formato da RFC 7662 (claims tipadas em JSON compacto)")
+    @ApiResponse(responseCode = "200", description = "Sempre 200: 'active' indica se o token é válido")
+    @PostMapping(value = "/introspect", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IntrospectionResponse> introspect(@RequestParam String token) {
+        return jwtService.introspect(token)
+                .map(this::activeResponse)
+                // Resultado negativo não deve ser guardado: o cliente pode estar usando um token recém-emitido por outro nó
+                .orElseGet(() -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(IntrospectionResponse.inactive()));
+    }
 
+    private ResponseEntity<IntrospectionResponse> activeResponse(TokenClaims claims) {
+        Instant exp = claims.expiresAt();
+        Instant iat = claims.issuedAt();
+        IntrospectionResponse body = new IntrospectionResponse(true, claims.subject(), claims.role(),
+                exp == null ? null : exp.getEpochSecond(), iat == null ? null : iat.getEpochSecond(),
+                claims.id(), "Bearer");
+        if (exp == null) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(body);
+        }
+        // O gateway pode reutilizar a resposta até o 'exp' do token
+        Duration ttl = Duration.between(Instant.now(), exp);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(ttl.isNegative() ? Duration.ZERO : ttl).cachePrivate())
+                .body(body);
+    }
+
+    @Operation(summary = "Valida vários tokens JWT em uma única requisição (array JSON)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resultado por token, na mesma ordem da entrada"),
+        @ApiResponse(responseCode = "413", description = "Lote maior que o limite configurado em jwt.batch.max-size")
+    })
+    @PostMapping(value = "/validate/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<TokenValidationResult>> validateBatch(@RequestBody List<String> tokens) {
+        if (tokens.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        // Os tokens são verificados em paralelo, mas a resposta preserva a ordem da entrada
+        return ResponseEntity.ok(jwtService.validateAll(tokens));
+    }
+
+    @Operation(summary = "Valida tokens JWT em streaming (NDJSON: um token por linha, um resultado por linha)")
+    @ApiResponse(responseCode = "200", description = "Um resultado JSON por linha, na mesma ordem da entrada")
+    @PostMapping(value = "/validate/stream", consumes = APPLICATION_NDJSON_VALUE, produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> validateStream(HttpServletRequest request) throws IOException {
+        InputStream body = request.getInputStream();
+        // A leitura e a escrita acontecem fora da thread do Tomcat, enquanto a conexão estiver aberta
+        StreamingResponseBody stream = out -> streamValidation(body, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(stream);
+    }
+
+    private void streamValidation(InputStream body, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<String> chunk = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+                chunk.add(parseNdjsonToken(line.strip()));
+            }
+            // Valida o que já chegou quando o cliente para de enviar (ou o bloco enche) e devolve imediatamente
+            if (!chunk.isEmpty() && (chunk.size() >= maxBatchSize || !reader.ready())) {
+                writeResults(chunk, out);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeResults(chunk, out);
+        }
+    }
+
+    private void writeResults(List<String> tokens, OutputStream out) throws IOException {
+        for (TokenValidationResult result : jwtService.validateAll(tokens)) {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    // Cada linha pode ser o token puro ou uma string JSON ("eyJ...")
+    private String parseNdjsonToken(String line) throws IOException {
+        return line.startsWith("\"") ? objectMapper.readValue(line, String.class) : line;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.authserver.controller;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.authserver.dto.UserImportReport;
+import com.example.authserver.service.UserImportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+
+
+@RestController
+@RequestMapping("/api/admin/users")
+@Tag(name = "Administração de Usuários", description = "Provisionamento de usuários (exige a role 'ADMIN')") // Tag no Swagger UI
+@SecurityRequirement(name = "bearerAuth")
+
+public class UserAdminController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final UserImportService userImportService;
+
+    public UserAdminController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    @Operation(summary = "Importa usuários em massa (CSV com cabeçalho username,password[,role] ou NDJSON com um objeto por linha)")
+    @ApiResponse(responseCode = "200", description = "Relatório com totais e erros por linha; linhas inválidas não interrompem a importação")
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE}, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')") // Exige que o JWT do usuário tenha a role 'ADMIN' para acessar
+    public ResponseEntity<UserImportReport> importUsers(HttpServletRequest request) throws IOException {
+        // O corpo é lido em streaming, lote a lote: o arquivo inteiro nunca fica em memória
+        UserImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                ? UserImportService.Format.CSV : UserImportService.Format.NDJSON;
+        try (InputStreamReader body = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(userImportService.importUsers(body, format));
+        }
+    }
+}
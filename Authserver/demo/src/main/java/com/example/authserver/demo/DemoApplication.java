@@ -2,8 +2,12 @@ package com.example.authserver.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = "com.example.authserver")
+@EnableJpaRepositories(basePackages = "com.example.authserver.repository")
+@EntityScan(basePackages = "com.example.authserver.model")
 public class DemoApplication {
 
 	public static void main(String[] args) {
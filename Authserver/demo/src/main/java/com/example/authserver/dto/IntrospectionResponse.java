@@ -0,0 +1,23 @@
+package com.example.authserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Resposta de introspecção no formato da RFC 7662; campos ausentes não são serializados.
+// Tokens inválidos resultam apenas em {"active":false}, sem revelar o motivo.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IntrospectionResponse(
+        boolean active,
+        String sub,
+        String role,
+        Long exp,
+        Long iat,
+        String jti,
+        @JsonProperty("token_type") String tokenType) {
+
+    private static final IntrospectionResponse INACTIVE = new IntrospectionResponse(false, null, null, null, null, null, null);
+
+    public static IntrospectionResponse inactive() {
+        return INACTIVE;
+    }
+}
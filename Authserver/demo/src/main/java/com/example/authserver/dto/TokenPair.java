@@ -0,0 +1,5 @@
+package com.example.authserver.dto;
+
+// Token de acesso (JWT) e o refresh token opaco que permite renová-lo sem a senha
+public record TokenPair(String accessToken, String refreshToken) {
+}
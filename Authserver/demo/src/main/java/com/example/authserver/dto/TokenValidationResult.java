@@ -0,0 +1,23 @@
+package com.example.authserver.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Resultado da validação de um token individual (usado nos endpoints de validação em lote)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenValidationResult(
+        boolean valid,
+        String subject,
+        String role,
+        Instant expiresAt,
+        String error) {
+
+    public static TokenValidationResult valid(String subject, String role, Instant expiresAt) {
+        return new TokenValidationResult(true, subject, role, expiresAt, null);
+    }
+
+    public static TokenValidationResult invalid(String error) {
+        return new TokenValidationResult(false, null, null, null, error);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.authserver.dto;
+
+import java.util.List;
+
+// Resultado de uma importação em massa: totais e os erros por linha (limitados a auth.import.max-reported-errors)
+public record UserImportReport(
+        int total,
+        int imported,
+        int failed,
+        List<RowError> errors,
+        boolean errorsTruncated) {
+
+    // line é a linha do arquivo (1 = primeira linha, incluindo o cabeçalho do CSV)
+    public record RowError(long line, String username, String error) {
+    }
+}
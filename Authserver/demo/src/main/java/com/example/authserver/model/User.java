@@ -1,29 +1,38 @@
 package com.example.authserver.model;
 
+import java.time.Instant;
+
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @NoArgsConstructor
-@AllArgsConstructor 
 @Data
-@Table (name = "users")
+@Table (name = "users", indexes = @Index(name = "ux_users_username", columnList = "username", unique = true)) // Índice da consulta do login
 @Entity
+@EntityListeners(UserCacheInvalidationListener.class) // Mantém o UserCredentialsCache coerente com o banco
 
 
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence com blocos de 100 ids (otimizador pooled): o Hibernate conhece o id antes do INSERT e consegue
+    // agrupar as inserções em lotes JDBC, o que IDENTITY impede (cada INSERT precisaria voltar ao banco pelo id)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 100)
      private Long id;
 
-    @Column (unique = true, nullable = false)
+    @Column (nullable = false) // Unicidade garantida pelo índice ux_users_username
     private String username;
 
      @Column(nullable = false)
@@ -32,5 +41,23 @@ public class User {
     @Column(nullable = false) 
       private String role;
 
+    // Atividade de login, gravada em lote pelo LoginActivityTracker (write-behind, via JDBC).
+    // Fora dos INSERT/UPDATE do Hibernate: salvar a entidade (ex.: troca de hash) não sobrescreve estes contadores.
+    @Column(name = "last_login_at", insertable = false, updatable = false)
+    private Instant lastLoginAt;
+
+    @ColumnDefault("0")
+    @Column(name = "failed_attempts", nullable = false, insertable = false, updatable = false)
+    private int failedAttempts; // Falhas de senha consecutivas desde o último login com sucesso
+
+    @Column(name = "locked_until", insertable = false, updatable = false)
+    private Instant lockedUntil; // Fim do último bloqueio aplicado pelo LoginRateLimiter
+
+    public User(Long id, String username, String password, String role) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.role = role;
+    }
 
 }
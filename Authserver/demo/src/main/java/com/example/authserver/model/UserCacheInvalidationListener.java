@@ -0,0 +1,43 @@
+package com.example.authserver.model;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.authserver.service.UserCredentialsCache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+// Listener JPA da entidade User: remove o usuário do cache de credenciais sempre que ele é criado, alterado ou removido.
+// O Hibernate obtém esta instância do contexto Spring, por isso a injeção pelo construtor funciona.
+@Component
+public class UserCacheInvalidationListener {
+
+    // Resolvido sob demanda: o cache depende do UserRepository, que depende do EntityManagerFactory que cria este listener
+    private final ObjectProvider<UserCredentialsCache> userCredentialsCache;
+
+    public UserCacheInvalidationListener(ObjectProvider<UserCredentialsCache> userCredentialsCache) {
+        this.userCredentialsCache = userCredentialsCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        String username = user.getUsername();
+        UserCredentialsCache cache = userCredentialsCache.getObject();
+        cache.invalidate(username);
+        // Invalida de novo após o commit: uma leitura concorrente entre o flush e o commit pode ter recarregado o valor antigo
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.authserver.model;
+
+// Visão mínima de um usuário para autenticação: apenas o necessário para o login e para o UserDetailsService.
+// Imutável, pode ser compartilhada entre threads e guardada em cache sem arrastar a entidade JPA.
+public record UserCredentials(String username, String passwordHash, String role) {
+
+    public static UserCredentials from(User user) {
+        return new UserCredentials(user.getUsername(), user.getPassword(), user.getRole());
+    }
+}
@@ -1,13 +1,27 @@
 package com.example.authserver.repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.authserver.model.User;
+import com.example.authserver.model.UserCredentials;
 
 public interface UserRepository extends JpaRepository <User,Long>{
 
     Optional<User> findByUsername (String username);
+
+    // Consulta do login: projeção direto no record (só username, hash e role), sem entidade gerenciada,
+    // snapshot para dirty checking nem entrada no contexto de persistência. Usa o índice ux_users_username.
+    @Query("select new com.example.authserver.model.UserCredentials(u.username, u.password, u.role) from User u where u.username = :username")
+    Optional<UserCredentials> findCredentialsByUsername(@Param("username") String username);
+
+    // Quais destes usernames já existem (uma consulta por lote na importação em massa)
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
     
 }
@@ -0,0 +1,342 @@
+package com.example.authserver.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+// Trilha de auditoria dos eventos de autenticação (login, emissão e rejeição de tokens), uma linha JSON por evento.
+// A thread da requisição só reserva uma posição num ring buffer de tamanho fixo (um CAS) e preenche os campos:
+// nada de I/O, lock ou alocação. Com o buffer cheio o evento é descartado e contado (auth.audit.dropped).
+// Uma thread própria drena o buffer em lotes e escreve em segmentos de arquivo mapeados em memória (append-only);
+// ao encher um segmento, ele é truncado no tamanho escrito e o próximo é aberto, mantendo só os mais recentes
+// (a mesma limpeza roda na inicialização, que sempre começa um segmento novo).
+// As linhas escritas no mapeamento sobrevivem a uma queda do processo; o msync (force) acontece na rotação e no shutdown.
+@Component
+public class AuthAuditLog {
+
+    public enum EventType {
+        LOGIN_SUCCESS("login_success"),
+        LOGIN_FAILURE("login_failure"),
+        TOKEN_ISSUED("token_issued"),
+        TOKEN_REJECTED("token_rejected");
+
+        private final String code;
+
+        EventType(String code) {
+            this.code = code;
+        }
+
+        public String code() {
+            return code;
+        }
+    }
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d+)\\.log");
+
+    private final boolean enabled;
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // Próxima posição a reservar (produtores)
+    private volatile long head; // Próxima posição a ler (escrita só pela thread de gravação)
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    private final Path dir;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final JsonWriter line = new JsonWriter();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private int segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+
+    @Autowired
+    public AuthAuditLog(@Value("${auth.audit.enabled:true}") boolean enabled,
+                        @Value("${auth.audit.dir:./audit}") Path dir,
+                        @Value("${auth.audit.buffer-size:65536}") int bufferSize,
+                        @Value("${auth.audit.batch-size:1024}") int batchSize,
+                        @Value("${auth.audit.flush-interval:200ms}") Duration flushInterval,
+                        @Value("${auth.audit.segment-size:64MB}") DataSize segmentSize,
+                        @Value("${auth.audit.max-segments:10}") int maxSegments,
+                        MeterRegistry registry) {
+        this(enabled, dir, bufferSize, batchSize, flushInterval, Math.toIntExact(segmentSize.toBytes()), maxSegments);
+        FunctionCounter.builder("auth.audit.dropped", dropped, LongAdder::sum)
+                .description("Eventos de auditoria descartados com o buffer cheio")
+                .register(registry);
+        FunctionCounter.builder("auth.audit.written", written, LongAdder::sum)
+                .description("Eventos de auditoria gravados em arquivo")
+                .register(registry);
+        Gauge.builder("auth.audit.pending", this, AuthAuditLog::pending)
+                .description("Eventos no buffer aguardando gravação")
+                .register(registry);
+    }
+
+    AuthAuditLog(boolean enabled, Path dir, int bufferSize, int batchSize, Duration flushInterval,
+                 int segmentSize, int maxSegments) {
+        this.enabled = enabled;
+        // Capacidade arredondada para potência de 2: a posição no array sai de uma máscara, sem divisão
+        int capacity = bufferSize <= 2 ? 2 : Integer.highestOneBit(bufferSize - 1) << 1;
+        this.slots = new Slot[enabled ? capacity : 0];
+        this.mask = capacity - 1;
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot(i);
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        if (!enabled) {
+            this.writer = null;
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            segmentIndex = lastSegmentIndex();
+            openNextSegment();
+            deleteOldSegments(); // Cada inicialização abre um segmento novo: sem isso, reinícios acumulariam arquivos
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o log de auditoria em " + dir, e);
+        }
+        this.writer = Thread.ofPlatform().name("auth-audit-writer").daemon().start(this::writeLoop);
+    }
+
+    public void loginSucceeded(String username, String clientAddress) {
+        record(EventType.LOGIN_SUCCESS, username, null, null, clientAddress, null);
+    }
+
+    public void loginFailed(String username, String clientAddress, String reason) {
+        record(EventType.LOGIN_FAILURE, username, null, null, clientAddress, reason);
+    }
+
+    public void tokenIssued(String subject, String role, String jti) {
+        record(EventType.TOKEN_ISSUED, subject, role, jti, null, null);
+    }
+
+    // subject, role e jti só são conhecidos quando a assinatura era válida (ex.: token revogado)
+    public void tokenRejected(String reason, String subject, String role, String jti) {
+        record(EventType.TOKEN_REJECTED, subject, role, jti, null, reason);
+    }
+
+    // Nunca bloqueia: devolve false (e conta o descarte) se o buffer estiver cheio
+    public boolean record(EventType type, String subject, String role, String jti, String clientAddress, String detail) {
+        if (!enabled) {
+            return false;
+        }
+        long position = tail.get();
+        while (true) {
+            Slot slot = slots[(int) (position & mask)];
+            long available = slot.sequence - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slot.timestamp = System.currentTimeMillis();
+                    slot.type = type;
+                    slot.subject = subject;
+                    slot.role = role;
+                    slot.jti = jti;
+                    slot.clientAddress = clientAddress;
+                    slot.detail = detail;
+                    slot.sequence = position + 1; // Publica o evento para a thread de escrita
+                    return true;
+                }
+                position = tail.get(); // Outro produtor levou esta posição
+            } else if (available < 0) {
+                dropped.increment(); // A posição ainda não foi lida: buffer cheio
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long writtenCount() {
+        return written.sum();
+    }
+
+    public long pending() {
+        return enabled ? Math.max(0, tail.get() - head) : 0;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(flushIntervalNanos); // Sem eventos: espera o próximo ciclo em vez de girar
+            }
+        }
+        // Shutdown: grava o que os produtores publicaram até aqui
+        int drained;
+        do {
+            drained = drain();
+        } while (drained > 0);
+    }
+
+    // Grava até batchSize eventos já publicados; devolve quantos foram gravados
+    private int drain() {
+        int count = 0;
+        try {
+            while (count < batchSize) {
+                Slot slot = slots[(int) (head & mask)];
+                if (slot.sequence != head + 1) {
+                    break; // Posição ainda não publicada (ou reservada e em preenchimento)
+                }
+                encode(slot);
+                slot.clear();
+                slot.sequence = head + slots.length; // Libera a posição para a próxima volta do anel
+                head++;
+                append();
+                count++;
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar o log de auditoria: " + e.getMessage());
+        }
+        written.add(count);
+        return count;
+    }
+
+    private void encode(Slot slot) {
+        line.reset();
+        line.raw("{\"ts\":").number(slot.timestamp)
+            .raw(",\"event\":\"").raw(slot.type.code()).raw('"');
+        field("sub", slot.subject);
+        field("role", slot.role);
+        field("jti", slot.jti);
+        field("client", slot.clientAddress);
+        field("reason", slot.detail);
+        line.raw("}\n");
+    }
+
+    private void field(String name, String value) {
+        if (value != null) {
+            line.raw(",\"").raw(name).raw("\":").string(value);
+        }
+    }
+
+    private void append() throws IOException {
+        if (line.length > segment.remaining()) {
+            rotate();
+            if (line.length > segment.remaining()) {
+                return; // Linha maior que um segmento inteiro: descartada para não corromper o arquivo
+            }
+        }
+        segment.put(line.bytes, 0, line.length);
+    }
+
+    private void rotate() throws IOException {
+        closeSegment();
+        openNextSegment();
+        deleteOldSegments();
+    }
+
+    private void openNextSegment() throws IOException {
+        segmentIndex++;
+        channel = FileChannel.open(segmentPath(segmentIndex),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    // O arquivo mapeado tem sempre segmentSize bytes; ao fechar, fica só com o que foi escrito
+    private void closeSegment() throws IOException {
+        segment.force();
+        channel.truncate(segment.position());
+        channel.close();
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Integer> indexes = segmentIndexes();
+        for (int i = 0; i < indexes.size() - maxSegments; i++) {
+            Files.deleteIfExists(segmentPath(indexes.get(i)));
+        }
+    }
+
+    private int lastSegmentIndex() throws IOException {
+        List<Integer> indexes = segmentIndexes();
+        return indexes.isEmpty() ? 0 : indexes.get(indexes.size() - 1);
+    }
+
+    private List<Integer> segmentIndexes() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Integer.parseInt(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return dir.resolve(String.format("audit-%08d.log", index));
+    }
+
+    @PreDestroy
+    public void close() {
+        if (writer == null || !running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+            closeSegment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar o log de auditoria: " + e.getMessage());
+        }
+    }
+
+    // Posição do anel: sequence == posição + 1 quando o evento está publicado e pronto para leitura,
+    // e == posição quando está livre para o produtor daquela volta
+    private static final class Slot {
+
+        volatile long sequence;
+        long timestamp;
+        EventType type;
+        String subject;
+        String role;
+        String jti;
+        String clientAddress;
+        String detail;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+
+        void clear() {
+            subject = null;
+            role = null;
+            jti = null;
+            clientAddress = null;
+            detail = null;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.authserver.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.example.authserver.validator.TokenValidator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Métricas do login e da validação de tokens, publicadas pelo actuator (/actuator/metrics e /actuator/prometheus).
+// Os timers de todos os outcomes possíveis são registrados no construtor e ficam em mapas imutáveis: o caminho
+// quente só escolhe o timer pronto, sem montar chaves nem consultar o registry. Outcome fora da lista cai no genérico.
+//   auth.login            -> latência total do login, por outcome (success, bad_credentials, rate_limited, overloaded, error)
+//   auth.login.phase      -> latência de cada fase do login (lookup, bcrypt, sign)
+//   auth.refresh          -> renovação com refresh token, por outcome (success, invalid, reused)
+//   auth.token.verify     -> verificação no JwtService, por outcome (valid, expired, invalid_signature, malformed, ...) e cache (hit/miss)
+//   auth.token.decode     -> decode do resource server (rotas /api/**), por outcome
+@Component
+public class AuthMetrics {
+
+    private static final List<String> LOGIN_OUTCOMES = List.of("success", "bad_credentials", "rate_limited", "overloaded", "error");
+    private static final List<String> REFRESH_OUTCOMES = List.of("success", "invalid", "reused");
+
+    private final MeterRegistry registry;
+    private final Timer lookupTimer;
+    private final Timer bcryptTimer;
+    private final Timer signTimer;
+    private final Map<String, Timer> loginTimers;
+    private final Map<String, Timer> refreshTimers;
+    private final Map<String, Timer> verifyHitTimers;
+    private final Map<String, Timer> verifyMissTimers;
+    private final Map<String, Timer> decodeTimers;
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.lookupTimer = timer("auth.login.phase", "Fases do login", "phase", "lookup");
+        this.bcryptTimer = timer("auth.login.phase", "Fases do login", "phase", "bcrypt");
+        this.signTimer = timer("auth.login.phase", "Fases do login", "phase", "sign");
+        this.loginTimers = timers(LOGIN_OUTCOMES,
+                outcome -> timer("auth.login", "Latência total do login", "outcome", outcome));
+        this.refreshTimers = timers(REFRESH_OUTCOMES,
+                outcome -> timer("auth.refresh", "Renovação de sessão com refresh token", "outcome", outcome));
+        List<String> tokenOutcomes = new ArrayList<>(TokenValidator.FAILURE_REASONS);
+        tokenOutcomes.add("valid");
+        this.verifyHitTimers = timers(tokenOutcomes,
+                outcome -> timer("auth.token.verify", "Verificação de tokens no JwtService", "outcome", outcome, "cache", "hit"));
+        this.verifyMissTimers = timers(tokenOutcomes,
+                outcome -> timer("auth.token.verify", "Verificação de tokens no JwtService", "outcome", outcome, "cache", "miss"));
+        this.decodeTimers = timers(tokenOutcomes,
+                outcome -> timer("auth.token.decode", "Decode de tokens no resource server", "outcome", outcome));
+    }
+
+    public Timer lookupTimer() {
+        return lookupTimer;
+    }
+
+    public Timer bcryptTimer() {
+        return bcryptTimer;
+    }
+
+    public Timer signTimer() {
+        return signTimer;
+    }
+
+    public void recordLogin(String outcome, long nanos) {
+        select(loginTimers, outcome, "error").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRefresh(String outcome, long nanos) {
+        select(refreshTimers, outcome, "invalid").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordVerification(String outcome, boolean cacheHit, long nanos) {
+        select(cacheHit ? verifyHitTimers : verifyMissTimers, outcome, "invalid").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDecode(String outcome, long nanos) {
+        select(decodeTimers, outcome, "invalid").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer select(Map<String, Timer> timers, String outcome, String fallback) {
+        Timer timer = timers.get(outcome);
+        return timer != null ? timer : timers.get(fallback);
+    }
+
+    private static Map<String, Timer> timers(List<String> outcomes, Function<String, Timer> register) {
+        return outcomes.stream().collect(Collectors.toUnmodifiableMap(Function.identity(), register));
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99) // Visíveis em /actuator/metrics
+                .publishPercentileHistogram() // Buckets para histogram_quantile no Prometheus
+                .register(registry);
+    }
+}
@@ -1,12 +1,13 @@
 package com.example.authserver.service;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import com.example.authserver.model.User;
+import com.example.authserver.dto.TokenPair;
+import com.example.authserver.model.UserCredentials;
 import com.example.authserver.repository.UserRepository;
 
     
@@ -14,19 +15,91 @@ import com.example.authserver.repository.UserRepository;
 public class AuthService {
 
     private final UserRepository userRepository; // Injeta o repositório para acesso ao DB
-    private final PasswordEncoder passwordEncoder; // Injeta o codificador de senhas (BCryptPasswordEncoder)
+    private final UserCredentialsCache userCredentialsCache; // Cache local de username/hash/role
+    private final PasswordHashingExecutor passwordHashingExecutor; // Executa o BCrypt fora das threads do Tomcat
     private final JwtService jwtService; // Injeta o serviço de JWT para gerar tokens
+    private final RefreshTokenStore refreshTokenStore; // Refresh tokens de uso único (renovação sem BCrypt)
+    private final LoginRateLimiter loginRateLimiter; // Limite de tentativas por username/endereço e bloqueio progressivo
+    private final AuthMetrics authMetrics; // Timers de cada fase do login
+    private final AuthAuditLog auditLog; // Trilha de auditoria assíncrona (não bloqueia a requisição)
+    private final LoginActivityTracker loginActivity; // Último login, falhas e bloqueio do usuário (gravados em lote)
 
     // Construtor: Spring Boot injeta automaticamente as dependências necessárias
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService) {
+    public AuthService(UserRepository userRepository, UserCredentialsCache userCredentialsCache,
+                       PasswordHashingExecutor passwordHashingExecutor, JwtService jwtService,
+                       RefreshTokenStore refreshTokenStore, LoginRateLimiter loginRateLimiter, AuthMetrics authMetrics,
+                       AuthAuditLog auditLog, LoginActivityTracker loginActivity) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.userCredentialsCache = userCredentialsCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
         this.jwtService = jwtService;
+        this.refreshTokenStore = refreshTokenStore;
+        this.loginRateLimiter = loginRateLimiter;
+        this.authMetrics = authMetrics;
+        this.auditLog = auditLog;
+        this.loginActivity = loginActivity;
     }
    
-      public String authenticateUserAndGenerateToken(String username, String password) {
-        // 1. Buscar o usuário pelo username no banco de dados
-        Optional<User> userOptional = userRepository.findByUsername(username);
+      public TokenPair authenticateUserAndGenerateToken(String username, String password, String clientAddress) {
+        // Mede o login completo e classifica o resultado (auth.login)
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            // Antes de tudo: tentativas acima do limite são recusadas sem consulta ao banco nem BCrypt
+            loginRateLimiter.acquire(username, clientAddress);
+            String token = authenticate(username, password);
+            loginRateLimiter.recordSuccess(username);
+            loginActivity.loginSucceeded(username);
+            outcome = "success";
+            return new TokenPair(token, refreshTokenStore.issue(username));
+        } catch (LoginRateLimitedException e) {
+            outcome = "rate_limited";
+            throw e;
+        } catch (BadCredentialsException e) {
+            Duration lockout = loginRateLimiter.recordFailure(username); // Falhas seguidas levam ao bloqueio progressivo do username
+            loginActivity.loginFailed(username, lockout);
+            outcome = "bad_credentials";
+            throw e;
+        } catch (LoginOverloadedException e) {
+            outcome = "overloaded";
+            throw e;
+        } finally {
+            authMetrics.recordLogin(outcome, System.nanoTime() - start);
+            if ("success".equals(outcome)) {
+                auditLog.loginSucceeded(username, clientAddress);
+            } else {
+                auditLog.loginFailed(username, clientAddress, outcome);
+            }
+        }
+    }
+
+    // Renova a sessão com o refresh token: uma consulta ao store, uma ao cache de usuários e uma assinatura, sem BCrypt
+    public TokenPair refresh(String refreshToken) {
+        long start = System.nanoTime();
+        String outcome = "invalid";
+        try {
+            RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(refreshToken);
+            // A role vem do cache de usuários (e não do refresh token), para refletir alterações feitas desde o login
+            Optional<UserCredentials> user = userCredentialsCache.findByUsername(rotation.username());
+            if (user.isEmpty()) {
+                refreshTokenStore.revokeFamily(rotation.family()); // Usuário removido: a sessão acaba aqui
+                throw new BadCredentialsException("Credenciais inválidas: Usuário não encontrado.");
+            }
+            String token = authMetrics.signTimer().record(() -> jwtService.generateToken(user.get().username(), user.get().role()));
+            outcome = "success";
+            return new TokenPair(token, rotation.refreshToken());
+        } catch (RefreshTokenReuseException e) {
+            outcome = "reused";
+            throw e;
+        } finally {
+            authMetrics.recordRefresh(outcome, System.nanoTime() - start);
+        }
+    }
+
+    private String authenticate(String username, String password) {
+        // 1. Buscar o usuário pelo username (no cache local; vai ao banco apenas na primeira vez ou após invalidação)
+        Optional<UserCredentials> userOptional = authMetrics.lookupTimer()
+                .record(() -> userCredentialsCache.findByUsername(username));
 
         // 2. Verificar se o usuário existe
         if (userOptional.isEmpty()) {
@@ -34,17 +107,27 @@ public class AuthService {
             throw new BadCredentialsException("Credenciais inválidas: Usuário não encontrado.");
         }
 
-        User user = userOptional.get(); // Obtém o objeto User do Optional
+        UserCredentials user = userOptional.get(); // Obtém as credenciais do Optional
 
         // 3. Verificar se a senha fornecida corresponde à senha codificada no banco de dados
-        // `passwordEncoder.matches` compara a senha em texto claro com a senha codificada
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        // A comparação BCrypt roda no pool dedicado; se ele estiver saturado, lança LoginOverloadedException
+        boolean matches = authMetrics.bcryptTimer().record(() -> passwordHashingExecutor.matches(password, user.passwordHash()));
+        if (!matches) {
             // Se as senhas não corresponderem, lança uma exceção de credenciais inválidas
             throw new BadCredentialsException("Credenciais inválidas: Senha incorreta.");
         }
 
-        // 4. Se tudo estiver correto (usuário encontrado e senha válida), gera e retorna o JWT
-        return jwtService.generateToken(user.getUsername(), user.getRole());
+        // 4. Se o hash foi gerado com custo menor (ou formato antigo), atualiza em segundo plano com a senha já validada
+        if (passwordHashingExecutor.needsRehash(user.passwordHash())) {
+            passwordHashingExecutor.rehashInBackground(password, newHash ->
+                    userRepository.findByUsername(user.username()).ifPresent(entity -> {
+                        entity.setPassword(newHash);
+                        userRepository.save(entity); // O listener da entidade invalida o cache
+                    }));
+        }
+
+        // 5. Se tudo estiver correto (usuário encontrado e senha válida), gera e retorna o JWT
+        return authMetrics.signTimer().record(() -> jwtService.generateToken(user.username(), user.role()));
     }
 }
 
@@ -0,0 +1,108 @@
+package com.example.authserver.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Escritor mínimo de JSON em UTF-8 com o mesmo escape do Jackson (aspas, barra invertida e caracteres de controle).
+// Reutilizável (reset) e sem alocação enquanto o buffer comporta o conteúdo; usado pelo JwtIssuer e pelo AuthAuditLog.
+final class JsonWriter {
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    byte[] bytes = new byte[256];
+    int length;
+
+    void reset() {
+        length = 0;
+    }
+
+    JsonWriter raw(String ascii) {
+        ensure(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) {
+            bytes[length++] = (byte) ascii.charAt(i);
+        }
+        return this;
+    }
+
+    JsonWriter raw(char c) {
+        ensure(1);
+        bytes[length++] = (byte) c;
+        return this;
+    }
+
+    // Datas em segundos são sempre positivas: escreve os dígitos direto, sem String intermediária
+    JsonWriter number(long value) {
+        if (value < 0) {
+            return raw(Long.toString(value));
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        ensure(digits);
+        for (int i = length + digits - 1; i >= length; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+        return this;
+    }
+
+    JsonWriter string(String value) {
+        if (value == null) {
+            return raw("null");
+        }
+        ensure(value.length() * 6 + 2); // Pior caso: todo caractere vira \\u00XX
+        bytes[length++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                bytes[length++] = (byte) c;
+            } else if (c < 0x80) {
+                escape(c);
+            } else if (c < 0x800) {
+                bytes[length++] = (byte) (0xc0 | (c >> 6));
+                bytes[length++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                bytes[length++] = (byte) (0xf0 | (cp >> 18));
+                bytes[length++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                bytes[length++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                bytes[length++] = (byte) (0x80 | (cp & 0x3f));
+            } else {
+                bytes[length++] = (byte) (0xe0 | (c >> 12));
+                bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                bytes[length++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        bytes[length++] = '"';
+        return this;
+    }
+
+    private void escape(char c) {
+        bytes[length++] = '\\';
+        switch (c) {
+            case '"' -> bytes[length++] = '"';
+            case '\\' -> bytes[length++] = '\\';
+            case '\b' -> bytes[length++] = 'b';
+            case '\f' -> bytes[length++] = 'f';
+            case '\n' -> bytes[length++] = 'n';
+            case '\r' -> bytes[length++] = 'r';
+            case '\t' -> bytes[length++] = 't';
+            default -> {
+                bytes[length++] = 'u';
+                bytes[length++] = '0';
+                bytes[length++] = '0';
+                bytes[length++] = HEX[c >> 4];
+                bytes[length++] = HEX[c & 0xf];
+            }
+        }
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(length + extra, bytes.length * 2));
+        }
+    }
+}
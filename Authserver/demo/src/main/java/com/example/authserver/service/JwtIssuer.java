@@ -0,0 +1,240 @@
+package com.example.authserver.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.example.authserver.validator.TokenRoles;
+
+// Emissão de tokens sem JWT.create(): o cabeçalho em Base64URL é calculado uma vez por chave, as claims fixas
+// (sub, role, jti, iat, exp) são escritas direto em buffers reutilizados por thread e, no HMAC, a assinatura usa um Mac
+// também reutilizado por thread. O resultado é idêntico, byte a byte, ao que o java-jwt produz para as mesmas claims
+// (mesma ordem de campos e mesmo escape do Jackson), então os verificadores existentes não percebem diferença.
+// No formato compacto (opt-in) o cabeçalho é só {"alg"[,"kid"]} e o payload {"sub","r","jti","exp"}: a role vira um
+// código de bits (TokenRoles) e o iat, que nenhum verificador exige, sai do token.
+public final class JwtIssuer {
+
+    public enum Format {
+        STANDARD,
+        COMPACT
+    }
+
+    private static final byte[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    private final Algorithm algorithm;
+    private final Supplier<Algorithm> signer; // Algorithm que assina agora (no key ring, o do snapshot atual)
+    private final SecretKeySpec hmacKey; // null quando a assinatura é delegada ao Algorithm (RS256/ES256)
+    private final Format format;
+    private final ThreadLocal<Buffers> buffers;
+    // Virtual threads vivem uma requisição só: um ThreadLocal criaria Mac e buffers novos a cada token.
+    // Nelas os buffers vêm deste pool compartilhado (no máximo um por emissão simultânea).
+    private final ConcurrentLinkedQueue<Buffers> sharedBuffers = new ConcurrentLinkedQueue<>();
+    private volatile Header header; // Cabeçalho do signer atual; recalculado só quando o key ring troca de snapshot
+
+    private JwtIssuer(Algorithm algorithm, Supplier<Algorithm> signer, SecretKeySpec hmacKey, Format format) {
+        this.algorithm = algorithm;
+        this.signer = signer;
+        this.hmacKey = hmacKey;
+        this.format = format;
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(hmacKey));
+    }
+
+    // HMAC256 com o mesmo segredo do Algorithm.HMAC256(secret): assinatura feita aqui, com Mac por thread
+    public static JwtIssuer hmac256(String secret) {
+        return hmac256(secret, Format.STANDARD);
+    }
+
+    public static JwtIssuer hmac256(String secret, Format format) {
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        Algorithm algorithm = Algorithm.HMAC256(key);
+        return new JwtIssuer(algorithm, () -> algorithm, new SecretKeySpec(key, HMAC_SHA256), format);
+    }
+
+    // Qualquer outro Algorithm: o cabeçalho inclui o kid (se houver) e a assinatura fica com o java-jwt
+    public static JwtIssuer signedBy(Algorithm algorithm) {
+        return signedBy(algorithm, Format.STANDARD);
+    }
+
+    public static JwtIssuer signedBy(Algorithm algorithm, Format format) {
+        return new JwtIssuer(algorithm, () -> algorithm, null, format);
+    }
+
+    // Key ring RS256/ES256: verifica com todas as chaves publicadas e assina com o Algorithm do snapshot atual,
+    // lido uma vez por token, para que o kid do cabeçalho e a chave da assinatura sejam sempre do mesmo par
+    public static JwtIssuer signedBy(JwtKeyRing keyRing, Format format) {
+        return new JwtIssuer(keyRing.algorithm(), keyRing::signingAlgorithm, null, format);
+    }
+
+    public Algorithm algorithm() {
+        return algorithm;
+    }
+
+    public Format format() {
+        return format;
+    }
+
+    // iat e exp em segundos desde a época, como o java-jwt grava as datas
+    public String issue(String subject, String role, String jti, long issuedAt, long expiresAt) {
+        boolean virtual = Thread.currentThread().isVirtual();
+        Buffers b = virtual ? acquireShared() : buffers.get();
+        try {
+            return issue(b, subject, role, jti, issuedAt, expiresAt);
+        } finally {
+            if (virtual) {
+                sharedBuffers.offer(b);
+            }
+        }
+    }
+
+    private Buffers acquireShared() {
+        Buffers b = sharedBuffers.poll();
+        return b != null ? b : new Buffers(hmacKey);
+    }
+
+    private String issue(Buffers b, String subject, String role, String jti, long issuedAt, long expiresAt) {
+        Header current = currentHeader(signer.get());
+        byte[] headerSegment = current.segment;
+
+        JsonWriter json = b.json;
+        json.reset();
+        json.raw("{\"sub\":").string(subject);
+        int roleCode = format == Format.COMPACT ? TokenRoles.code(role) : 0;
+        if (roleCode != 0) {
+            json.raw(",\"r\":").number(roleCode);
+        } else {
+            json.raw(",\"role\":").string(role); // Formato padrão, ou role sem código no compacto
+        }
+        json.raw(",\"jti\":").string(jti);
+        if (format == Format.STANDARD) {
+            json.raw(",\"iat\":").number(issuedAt);
+        }
+        json.raw(",\"exp\":").number(expiresAt).raw('}');
+
+        // header.payload.signature montado num único buffer
+        int payloadSegmentLength = encodedLength(json.length);
+        int maxLength = headerSegment.length + 1 + payloadSegmentLength + 1 + encodedLength(Buffers.MAX_SIGNATURE);
+        byte[] out = b.token(maxLength);
+        System.arraycopy(headerSegment, 0, out, 0, headerSegment.length);
+        int pos = headerSegment.length;
+        out[pos++] = '.';
+        int payloadStart = pos;
+        pos = encode(json.bytes, json.length, out, pos);
+        int signingInputLength = pos;
+        out[pos++] = '.';
+
+        if (hmacKey != null) {
+            Mac mac = b.mac;
+            mac.update(out, 0, signingInputLength);
+            try {
+                mac.doFinal(b.signature, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+            pos = encode(b.signature, mac.getMacLength(), out, pos);
+        } else {
+            byte[] signature = current.signer.sign(headerSegment, Arrays.copyOfRange(out, payloadStart, signingInputLength));
+            out = b.token(pos + encodedLength(signature.length));
+            pos = encode(signature, signature.length, out, pos);
+        }
+        // Só caracteres ASCII: a String compacta (Latin-1) copia os bytes sem decodificação
+        return new String(out, 0, pos, StandardCharsets.ISO_8859_1);
+    }
+
+    private Header currentHeader(Algorithm signer) {
+        Header current = header;
+        if (current == null || current.signer != signer) {
+            current = new Header(signer, headerSegment(signer.getSigningKeyId()));
+            header = current;
+        }
+        return current;
+    }
+
+    // Mesma forma do cabeçalho do java-jwt: {"alg":...,"typ":"JWT"} e, com key ring, o kid por último.
+    // O typ é opcional (RFC 7519, seção 5.1) e fica de fora no formato compacto.
+    private byte[] headerSegment(String kid) {
+        JsonWriter json = new JsonWriter();
+        json.raw("{\"alg\":").string(algorithm.getName());
+        if (format == Format.STANDARD) {
+            json.raw(",\"typ\":\"JWT\"");
+        }
+        if (kid != null) {
+            json.raw(",\"kid\":").string(kid);
+        }
+        json.raw('}');
+        byte[] segment = new byte[encodedLength(json.length)];
+        encode(json.bytes, json.length, segment, 0);
+        return segment;
+    }
+
+    private static int encodedLength(int length) {
+        return (length * 4 + 2) / 3; // Base64URL sem padding
+    }
+
+    private static int encode(byte[] src, int length, byte[] dst, int pos) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[pos++] = BASE64URL[bits >>> 18];
+            dst[pos++] = BASE64URL[(bits >>> 12) & 0x3f];
+            dst[pos++] = BASE64URL[(bits >>> 6) & 0x3f];
+            dst[pos++] = BASE64URL[bits & 0x3f];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xff) << 16;
+            dst[pos++] = BASE64URL[bits >>> 18];
+            dst[pos++] = BASE64URL[(bits >>> 12) & 0x3f];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+            dst[pos++] = BASE64URL[bits >>> 18];
+            dst[pos++] = BASE64URL[(bits >>> 12) & 0x3f];
+            dst[pos++] = BASE64URL[(bits >>> 6) & 0x3f];
+        }
+        return pos;
+    }
+
+    private record Header(Algorithm signer, byte[] segment) {
+    }
+
+    // Estado reutilizado por thread: JSON do payload, token montado e Mac já inicializado com a chave
+    private static final class Buffers {
+
+        static final int MAX_SIGNATURE = 64;
+
+        final JsonWriter json = new JsonWriter();
+        final byte[] signature = new byte[MAX_SIGNATURE];
+        final Mac mac;
+        byte[] token = new byte[512];
+
+        Buffers(SecretKeySpec hmacKey) {
+            this.mac = hmacKey == null ? null : newMac(hmacKey);
+        }
+
+        byte[] token(int capacity) {
+            if (token.length < capacity) {
+                token = Arrays.copyOf(token, Math.max(capacity, token.length * 2));
+            }
+            return token;
+        }
+
+        private static Mac newMac(SecretKeySpec key) {
+            try {
+                Mac mac = Mac.getInstance(HMAC_SHA256);
+                mac.init(key);
+                return mac;
+            } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+                throw new IllegalStateException("HmacSHA256 indisponível", e);
+            }
+        }
+    }
+}
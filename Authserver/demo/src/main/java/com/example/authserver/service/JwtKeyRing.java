@@ -0,0 +1,330 @@
+package com.example.authserver.service;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.ECDSAKeyProvider;
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Conjunto de chaves assimétricas (RS256 ou ES256) carregado de um diretório local e recarregado quando os arquivos mudam.
+// Cada chave é identificada pelo nome do arquivo (kid): "<kid>.key" (PKCS#8, privada) e "<kid>.pub" (X.509, pública).
+// Chaves só com ".pub" continuam verificando tokens antigos, mas não assinam. A chave ativa é jwt.keys.active-kid
+// ou, se vazio, o maior kid (em ordem alfabética) que tenha chave privada, o que permite rotacionar só adicionando arquivos.
+// Todo o estado fica num snapshot imutável trocado atomicamente: a busca por kid na verificação é um HashMap.get
+// e a assinatura usa o Algorithm do próprio snapshot, com kid e chave privada sempre do mesmo par.
+public class JwtKeyRing implements AutoCloseable {
+
+    public enum KeyAlgorithm {
+        RS256("RSA"), ES256("EC");
+
+        private final String keyFactoryAlgorithm;
+
+        KeyAlgorithm(String keyFactoryAlgorithm) {
+            this.keyFactoryAlgorithm = keyFactoryAlgorithm;
+        }
+    }
+
+    private record KeyEntry(String kid, PublicKey publicKey, PrivateKey privateKey) {
+    }
+
+    private record Snapshot(Map<String, KeyEntry> keys, KeyEntry active, Algorithm signer, String fingerprint,
+                            byte[] jwks, String etag) {
+    }
+
+    private final Path directory;
+    private final KeyAlgorithm keyAlgorithm;
+    private final String configuredActiveKid;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService reloader;
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(Path directory, KeyAlgorithm keyAlgorithm, String activeKid, Duration reloadInterval,
+                      ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.keyAlgorithm = keyAlgorithm;
+        this.configuredActiveKid = activeKid == null || activeKid.isBlank() ? null : activeKid;
+        this.objectMapper = objectMapper;
+        this.snapshot = load(fingerprint()); // Falha na inicialização se as chaves forem inválidas
+        this.reloader = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "jwt-key-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = reloadInterval.toMillis();
+        reloader.scheduleWithFixedDelay(this::reloadIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Algoritmo do java-jwt ligado a este key ring, para verificação: escolhe a chave pública pelo kid do token
+    public Algorithm algorithm() {
+        return algorithm(this::find, () -> snapshot.active());
+    }
+
+    // Algoritmo de assinatura do snapshot atual: kid e chave privada fixos, vindos do mesmo snapshot.
+    // O provider do algorithm() lê getPrivateKeyId() e getPrivateKey() em momentos diferentes; no meio de uma
+    // rotação eles poderiam vir de snapshots distintos e o token sairia com o kid de uma chave e a assinatura de outra.
+    public Algorithm signingAlgorithm() {
+        return snapshot.signer();
+    }
+
+    private Algorithm algorithm(Function<String, KeyEntry> publicKeys, Supplier<KeyEntry> signing) {
+        return switch (keyAlgorithm) {
+            case RS256 -> Algorithm.RSA256(new RSAKeyProvider() {
+                @Override
+                public RSAPublicKey getPublicKeyById(String kid) {
+                    KeyEntry entry = publicKeys.apply(kid);
+                    return entry == null ? null : (RSAPublicKey) entry.publicKey();
+                }
+
+                @Override
+                public RSAPrivateKey getPrivateKey() {
+                    return (RSAPrivateKey) signing.get().privateKey();
+                }
+
+                @Override
+                public String getPrivateKeyId() {
+                    return signing.get().kid();
+                }
+            });
+            case ES256 -> Algorithm.ECDSA256(new ECDSAKeyProvider() {
+                @Override
+                public ECPublicKey getPublicKeyById(String kid) {
+                    KeyEntry entry = publicKeys.apply(kid);
+                    return entry == null ? null : (ECPublicKey) entry.publicKey();
+                }
+
+                @Override
+                public ECPrivateKey getPrivateKey() {
+                    return (ECPrivateKey) signing.get().privateKey();
+                }
+
+                @Override
+                public String getPrivateKeyId() {
+                    return signing.get().kid();
+                }
+            });
+        };
+    }
+
+    public String getActiveKid() {
+        return snapshot.active().kid();
+    }
+
+    // Documento JWKS já serializado (refeito só quando o key ring muda)
+    public byte[] jwks() {
+        return snapshot.jwks();
+    }
+
+    public String jwksEtag() {
+        return snapshot.etag();
+    }
+
+    // Recarrega imediatamente se os arquivos mudaram (também chamado periodicamente)
+    public synchronized void reloadIfChanged() {
+        try {
+            String current = fingerprint();
+            if (!current.equals(snapshot.fingerprint())) {
+                snapshot = load(current);
+                System.out.println("🔑 Key ring JWT recarregado. Chave ativa: " + snapshot.active().kid());
+            }
+        } catch (RuntimeException e) {
+            // Mantém as chaves anteriores: um arquivo incompleto não pode derrubar a emissão de tokens
+            System.err.println("Erro ao recarregar as chaves JWT: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        reloader.shutdownNow();
+    }
+
+    private KeyEntry find(String kid) {
+        return kid == null ? null : snapshot.keys().get(kid);
+    }
+
+    private Snapshot load(String fingerprint) {
+        TreeMap<String, Path> privateFiles = new TreeMap<>();
+        TreeMap<String, Path> publicFiles = new TreeMap<>();
+        for (Path file : listFiles()) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(".key")) {
+                privateFiles.put(name.substring(0, name.length() - 4), file);
+            } else if (name.endsWith(".pub")) {
+                publicFiles.put(name.substring(0, name.length() - 4), file);
+            }
+        }
+
+        Map<String, KeyEntry> keys = new HashMap<>();
+        List<String> kids = new ArrayList<>(publicFiles.keySet());
+        privateFiles.keySet().stream().filter(kid -> !publicFiles.containsKey(kid)).forEach(kids::add);
+        for (String kid : kids) {
+            PrivateKey privateKey = privateFiles.containsKey(kid) ? readPrivateKey(privateFiles.get(kid)) : null;
+            PublicKey publicKey = publicFiles.containsKey(kid)
+                    ? readPublicKey(publicFiles.get(kid))
+                    : derivePublicKey(kid, privateKey);
+            keys.put(kid, new KeyEntry(kid, publicKey, privateKey));
+        }
+
+        String activeKid = configuredActiveKid != null ? configuredActiveKid
+                : privateFiles.isEmpty() ? null : privateFiles.lastKey();
+        KeyEntry active = activeKid == null ? null : keys.get(activeKid);
+        if (active == null || active.privateKey() == null) {
+            throw new IllegalStateException("Nenhuma chave privada para o kid ativo '" + activeKid + "' em " + directory);
+        }
+
+        byte[] jwks = buildJwks(keys);
+        Algorithm signer = algorithm(kid -> active.kid().equals(kid) ? active : null, () -> active);
+        return new Snapshot(Map.copyOf(keys), active, signer, fingerprint, jwks, etag(jwks));
+    }
+
+    private List<Path> listFiles() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.{key,pub}")) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível ler o diretório de chaves " + directory, e);
+        }
+        return files;
+    }
+
+    // Nome + data de modificação + tamanho de cada arquivo: muda sempre que uma chave é adicionada, trocada ou removida
+    private String fingerprint() {
+        StringBuilder sb = new StringBuilder();
+        listFiles().stream().sorted().forEach(file -> {
+            try {
+                sb.append(file.getFileName()).append(':')
+                  .append(Files.getLastModifiedTime(file).toMillis()).append(':')
+                  .append(Files.size(file)).append(';');
+            } catch (IOException e) {
+                sb.append(file.getFileName()).append(":?;");
+            }
+        });
+        return sb.toString();
+    }
+
+    private PrivateKey readPrivateKey(Path file) {
+        try {
+            return KeyFactory.getInstance(keyAlgorithm.keyFactoryAlgorithm)
+                    .generatePrivate(new PKCS8EncodedKeySpec(readPem(file)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Chave privada inválida em " + file, e);
+        }
+    }
+
+    private PublicKey readPublicKey(Path file) {
+        try {
+            return KeyFactory.getInstance(keyAlgorithm.keyFactoryAlgorithm)
+                    .generatePublic(new X509EncodedKeySpec(readPem(file)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Chave pública inválida em " + file, e);
+        }
+    }
+
+    // Para RSA a chave pública pode ser obtida da privada (módulo + expoente público); para EC o ".pub" é obrigatório
+    private PublicKey derivePublicKey(String kid, PrivateKey privateKey) {
+        if (privateKey instanceof RSAPrivateCrtKey rsa) {
+            try {
+                return KeyFactory.getInstance("RSA")
+                        .generatePublic(new RSAPublicKeySpec(rsa.getModulus(), rsa.getPublicExponent()));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Não foi possível derivar a chave pública de " + kid, e);
+            }
+        }
+        throw new IllegalStateException("Arquivo " + kid + ".pub ausente em " + directory);
+    }
+
+    private static byte[] readPem(Path file) {
+        try {
+            String pem = Files.readString(file, StandardCharsets.US_ASCII);
+            String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+            return Base64.getDecoder().decode(base64);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Não foi possível ler a chave em " + file, e);
+        }
+    }
+
+    private byte[] buildJwks(Map<String, KeyEntry> keys) {
+        List<Map<String, String>> jwkList = new ArrayList<>();
+        new TreeMap<>(keys).values().forEach(entry -> jwkList.add(toJwk(entry)));
+        try {
+            return objectMapper.writeValueAsBytes(Map.of("keys", jwkList));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o JWKS", e);
+        }
+    }
+
+    private Map<String, String> toJwk(KeyEntry entry) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kid", entry.kid());
+        jwk.put("use", "sig");
+        jwk.put("alg", keyAlgorithm.name());
+        if (entry.publicKey() instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsa.getModulus(), 0));
+            jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+        } else if (entry.publicKey() instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(ec.getW().getAffineX(), 32));
+            jwk.put("y", base64Url(ec.getW().getAffineY(), 32));
+        }
+        return jwk;
+    }
+
+    // Inteiro sem sinal em Base64URL (RFC 7518); length > 0 fixa o tamanho (coordenadas EC)
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] unsigned = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, unsigned, 0, unsigned.length);
+            bytes = unsigned;
+        }
+        if (length > bytes.length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String etag(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 16) + "\"";
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,62 +1,174 @@
 package com.example.authserver.service;
 
-import java.util.Date;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Service;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.authserver.dto.TokenValidationResult;
+import com.example.authserver.validator.TokenRevokedException;
+import com.example.authserver.validator.TokenRoles;
+import com.example.authserver.validator.TokenValidator;
+import com.example.authserver.validator.VerifiedTokenCache;
 
-@SuppressWarnings("unused")
 @Service
 public class JwtService {
-    
-    @Value ("${jwt.secret}")
-    private String secretKey;
 
+    // Abaixo deste tamanho o lote é validado na própria thread: o custo de dividir o trabalho supera o ganho
+    private static final int PARALLEL_BATCH_THRESHOLD = 32;
 
+    private final Long expirationTime;
 
-    @Value ("${jwt.expiration}")
-    private Long expirationTime;
+    // Emissor e verificador são thread-safe: criados uma única vez e reutilizados em todas as requisições
+    private final JwtIssuer issuer;
+    private final JWTVerifier verifier;
 
+    // Tokens já verificados neste nó (compartilhado com o JwtDecoder do resource server)
+    private final VerifiedTokenCache<DecodedJWT> verifiedTokenCache;
+    private final TokenRevocationService revocationService;
+    private final AuthMetrics authMetrics;
+    private final AuthAuditLog auditLog;
+
+    // O emissor vem do JwtSigningConfig: HMAC256 com jwt.secret ou o key ring assimétrico (RS256/ES256)
+    public JwtService(JwtIssuer jwtIssuer,
+                      @Value("${jwt.expiration}") Long expirationTime,
+                      VerifiedTokenCache<DecodedJWT> verifiedTokenCache,
+                      TokenRevocationService revocationService,
+                      AuthMetrics authMetrics,
+                      AuthAuditLog auditLog) {
+        this.expirationTime = expirationTime;
+        this.issuer = jwtIssuer;
+        this.verifier = JWT.require(jwtIssuer.algorithm()).build();
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.revocationService = revocationService;
+        this.authMetrics = authMetrics;
+        this.auditLog = auditLog;
+    }
 
     public String generateToken(String username, String role) {
-        return JWT.create() // Inicia a criação do JWT
-                .withSubject(username) // Define o "assunto" do token (quem é o dono)
-                .withClaim("role", role) // Adiciona uma informação personalizada (a role do usuário)
-                .withIssuedAt(new Date()) // Define a data de emissão do token (agora)
-                .withExpiresAt(new Date(System.currentTimeMillis() + expirationTime)) // Define a data de expiração
-                .sign(Algorithm.HMAC256(secretKey)); // Assina o token com HMAC256 e sua chave secreta
+        long now = System.currentTimeMillis();
+        // Mesmas claims e mesmo formato do JWT.create() (sub, role, jti, iat, exp), sem Jackson nem Date no caminho;
+        // com jwt.format=compact, o formato curto do JwtIssuer. A verificação aceita os dois.
+        // Assinado com HMAC256 e a chave secreta, ou com a chave ativa do key ring e seu kid.
+        String jti = newTokenId();
+        String token = issuer.issue(username, role, jti, now / 1000, (now + expirationTime) / 1000);
+        auditLog.tokenIssued(username, role, jti);
+        return token;
     }
 
-     public boolean validateToken(String token) {
+    // Verifica o token e devolve as claims decodificadas. Lança JWTVerificationException se o token for inválido.
+    public DecodedJWT verifyToken(String token) {
+        long start = System.nanoTime();
+        // Se o token já foi verificado e ainda não expirou, reaproveita o resultado
+        DecodedJWT cached = verifiedTokenCache.get(token);
+        boolean cacheHit = cached != null;
+        DecodedJWT verified = null;
         try {
-            // Cria um objeto verificador usando o mesmo algoritmo e chave secreta usados para criar o token
-            JWT.require(Algorithm.HMAC256(secretKey))
-               .build() // Constrói o verificador
-               .verify(token); // Tenta verificar o token. Se falhar, lança JWTVerificationException.
-            return true; // Se não lançar exceção, o token é válido
+            if (cacheHit) {
+                verified = cached;
+            } else {
+                verified = verifier.verify(token); // Se falhar, lança JWTVerificationException
+                verifiedTokenCache.put(token, verified);
+            }
+            // A revogação é checada mesmo em acerto de cache: o token pode ter sido revogado depois de verificado
+            if (revocationService.isRevoked(verified.getId())) {
+                throw new TokenRevokedException(verified.getId());
+            }
         } catch (JWTVerificationException e) {
-            System.err.println("Erro na validação do token: " + e.getMessage()); // Exibe o erro no console
+            String reason = TokenValidator.failureReason(e);
+            authMetrics.recordVerification(reason, cacheHit, System.nanoTime() - start);
+            // Assinatura válida (ex.: token revogado): o evento identifica o token; caso contrário, só o motivo
+            if (verified != null) {
+                auditLog.tokenRejected(reason, verified.getSubject(), TokenRoles.role(verified), verified.getId());
+            } else {
+                auditLog.tokenRejected(reason, null, null, null);
+            }
+            throw e;
+        }
+        authMetrics.recordVerification("valid", cacheHit, System.nanoTime() - start);
+        return verified;
+    }
+
+    // Revoga um token válido até o seu 'exp'. Devolve false se o token for inválido ou não tiver jti.
+    public boolean revokeToken(String token) {
+        Optional<DecodedJWT> jwt = decodeVerified(token);
+        if (jwt.isEmpty() || jwt.get().getId() == null) {
             return false;
         }
+        revocationService.revoke(jwt.get().getId(), jwt.get().getExpiresAtAsInstant());
+        return true;
+    }
+
+    // Igual a verifyToken, mas devolve Optional vazio em vez de lançar exceção (a falha fica registrada em auth.token.verify)
+    public Optional<DecodedJWT> decodeVerified(String token) {
+        try {
+            return Optional.of(verifyToken(token));
+        } catch (JWTVerificationException e) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean validateToken(String token) {
+        return decodeVerified(token).isPresent();
+    }
+
+    // Verifica o token uma única vez e devolve a visão tipada das claims (vazio se inválido)
+    public Optional<TokenClaims> introspect(String token) {
+        return decodeVerified(token).map(TokenClaims::new);
+    }
+
+    // Valida um token e devolve o resultado detalhado (subject, role, expiração ou motivo da falha)
+    public TokenValidationResult validate(String token) {
+        if (token == null || token.isBlank()) {
+            return TokenValidationResult.invalid("malformed");
+        }
+        try {
+            DecodedJWT jwt = verifyToken(token);
+            return TokenValidationResult.valid(jwt.getSubject(), TokenRoles.role(jwt),
+                    jwt.getExpiresAtAsInstant());
+        } catch (JWTVerificationException e) {
+            return TokenValidationResult.invalid(TokenValidator.failureReason(e));
+        }
     }
 
-     
+    // Valida vários tokens em paralelo; os resultados mantêm a ordem da lista de entrada
+    public List<TokenValidationResult> validateAll(List<String> tokens) {
+        if (tokens.size() < PARALLEL_BATCH_THRESHOLD) {
+            return tokens.stream().map(this::validate).toList();
+        }
+        return tokens.parallelStream().map(this::validate).toList();
+    }
+
+    // 128 bits aleatórios em Base64URL (22 caracteres); ThreadLocalRandom evita a contenção do SecureRandom compartilhado
+    private static String newTokenId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = random.nextLong();
+        long low = random.nextLong();
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (high >>> (56 - 8 * i));
+            bytes[i + 8] = (byte) (low >>> (56 - 8 * i));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
 
-     public String getUsernameFromToken(String token) {
+    public String getUsernameFromToken(String token) {
         // Decodifica o token para ler suas claims. Isso não verifica a assinatura.
         return JWT.decode(token).getSubject();
     }
 
-      public Map<String, Object> getAllClaimsFromToken(String token) {
+    public Map<String, Object> getAllClaimsFromToken(String token) {
+        // Cada claim mantém o seu tipo JSON (exp/iat numéricos, role texto, ...)
         return JWT.decode(token).getClaims().entrySet().stream()
-                   .collect(HashMap::new, (map, entry) -> map.put(entry.getKey(), entry.getValue().asString()), HashMap::putAll);
+                   .collect(HashMap::new, (map, entry) -> map.put(entry.getKey(), entry.getValue().as(Object.class)), HashMap::putAll);
     }
 }
-
@@ -0,0 +1,200 @@
+package com.example.authserver.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+// Atividade de login por usuário (último login, falhas consecutivas e bloqueio) com escrita adiada (write-behind).
+// O login só funde o evento na entrada do username num mapa em memória (merge atômico por chave, sem I/O);
+// a cada auth.login-tracking.flush-interval, e no shutdown, as entradas acumuladas viram um UPDATE por usuário,
+// enviados em lotes JDBC, cada lote na sua transação. Vários logins do mesmo usuário no intervalo resultam numa única escrita.
+// Janela de perda: numa queda do processo, no máximo o último intervalo de atividade não chega ao banco.
+@Component
+public class LoginActivityTracker {
+
+    // Sem login com sucesso no intervalo, as falhas se somam às já gravadas; com sucesso, o contador recomeça
+    private static final String UPDATE_SQL = """
+            UPDATE users SET
+                last_login_at = COALESCE(?, last_login_at),
+                failed_attempts = CASE WHEN ? THEN ? ELSE failed_attempts + ? END,
+                locked_until = COALESCE(?, locked_until)
+            WHERE username = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxPending;
+    private final Map<String, Activity> pending = new ConcurrentHashMap<>();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final ScheduledExecutorService flusher;
+
+    public LoginActivityTracker(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                @Value("${auth.login-tracking.enabled:true}") boolean enabled,
+                                @Value("${auth.login-tracking.flush-interval:5s}") Duration flushInterval,
+                                @Value("${auth.login-tracking.batch-size:500}") int batchSize,
+                                @Value("${auth.login-tracking.max-pending:100000}") int maxPending,
+                                MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        FunctionCounter.builder("auth.login.tracking.flushed", flushed, LongAdder::sum)
+                .description("Usuários com atividade de login gravada no banco")
+                .register(registry);
+        FunctionCounter.builder("auth.login.tracking.dropped", dropped, LongAdder::sum)
+                .description("Eventos de login descartados com o limite de usuários pendentes atingido")
+                .register(registry);
+        Gauge.builder("auth.login.tracking.pending", pending, Map::size)
+                .description("Usuários com atividade de login aguardando gravação")
+                .register(registry);
+        if (!enabled) {
+            this.flusher = null;
+            return;
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "login-activity-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void loginSucceeded(String username) {
+        record(username, new Activity(System.currentTimeMillis(), true, 0, 0));
+    }
+
+    // lockout: bloqueio que o LoginRateLimiter acabou de aplicar (Duration.ZERO se nenhum)
+    public void loginFailed(String username, Duration lockout) {
+        long lockedUntil = lockout.isZero() ? 0 : System.currentTimeMillis() + lockout.toMillis();
+        record(username, new Activity(0, false, 1, lockedUntil));
+    }
+
+    private void record(String username, Activity activity) {
+        if (!enabled) {
+            return;
+        }
+        // Usernames inexistentes também passam por aqui: o limite impede que uma enxurrada deles esgote a memória
+        if (pending.size() >= maxPending && !pending.containsKey(username)) {
+            dropped.increment();
+            return;
+        }
+        pending.merge(username, activity, Activity::then);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    // Grava toda a atividade acumulada até aqui; devolve quantos usuários foram atualizados
+    public synchronized int flush() {
+        int count = 0;
+        List<String> usernames = new ArrayList<>(Math.min(batchSize, pending.size()));
+        List<Activity> activities = new ArrayList<>(Math.min(batchSize, pending.size()));
+        for (String username : pending.keySet()) {
+            // remove devolve a entrada por inteiro: um login concorrente depois disso abre uma entrada nova
+            Activity activity = pending.remove(username);
+            if (activity == null) {
+                continue;
+            }
+            usernames.add(username);
+            activities.add(activity);
+            if (usernames.size() == batchSize) {
+                count += write(usernames, activities);
+                usernames.clear();
+                activities.clear();
+            }
+        }
+        if (!usernames.isEmpty()) {
+            count += write(usernames, activities);
+        }
+        return count;
+    }
+
+    private int write(List<String> usernames, List<Activity> activities) {
+        List<Object[]> rows = new ArrayList<>(usernames.size());
+        for (int i = 0; i < usernames.size(); i++) {
+            Activity a = activities.get(i);
+            rows.add(new Object[] {timestamp(a.lastLoginAt()), a.resetFailures(), a.failures(), a.failures(),
+                    timestamp(a.lockedUntil()), usernames.get(i)});
+        }
+        try {
+            // Tudo ou nada: fora de uma transação (autocommit), as linhas aplicadas antes de uma falha ficariam gravadas
+            // e, com o lote inteiro de volta ao mapa, as falhas delas seriam somadas de novo no próximo flush
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, rows));
+        } catch (DataAccessException | TransactionException e) {
+            // Nada foi gravado: o lote volta para o mapa, na frente do que chegou enquanto isso, e sai no próximo ciclo
+            for (int i = 0; i < usernames.size(); i++) {
+                pending.merge(usernames.get(i), activities.get(i), (newer, older) -> older.then(newer));
+            }
+            throw e;
+        }
+        flushed.add(usernames.size());
+        return usernames.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao gravar a atividade de login: " + e.getMessage());
+        }
+    }
+
+    private static OffsetDateTime timestamp(long epochMillis) {
+        return epochMillis == 0 ? null : OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS); // Um ciclo em andamento termina antes do flush final
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    // Atividade de um usuário desde o último flush. Imutável: cada evento gera uma nova, fundida pelo merge do mapa.
+    // lastLoginAt e lockedUntil em epoch millis (0 = sem valor).
+    record Activity(long lastLoginAt, boolean resetFailures, int failures, long lockedUntil) {
+
+        // Esta atividade seguida de next
+        Activity then(Activity next) {
+            long locked = Math.max(lockedUntil, next.lockedUntil);
+            if (next.resetFailures) {
+                return new Activity(next.lastLoginAt, true, next.failures, locked);
+            }
+            return new Activity(lastLoginAt, resetFailures, failures + next.failures, locked);
+        }
+    }
+}
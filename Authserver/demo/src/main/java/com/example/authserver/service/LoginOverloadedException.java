@@ -0,0 +1,19 @@
+package com.example.authserver.service;
+
+import java.time.Duration;
+
+// Lançada quando o pool de BCrypt não consegue atender o login a tempo (fila cheia ou prazo de espera esgotado).
+// O controller converte em 503 com o cabeçalho Retry-After.
+public class LoginOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LoginOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
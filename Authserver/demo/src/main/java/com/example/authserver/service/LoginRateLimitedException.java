@@ -0,0 +1,20 @@
+package com.example.authserver.service;
+
+import java.time.Duration;
+
+// Lançada quando o username ou o endereço do cliente excedeu o limite de tentativas de login (ou está bloqueado).
+// O controller converte em 429 com o cabeçalho Retry-After.
+public class LoginRateLimitedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LoginRateLimitedException(String message, Duration retryAfter) {
+        // Sem stack trace: a recusa é um caminho esperado e frequente sob ataque, e capturar a pilha custaria mais que o próprio limitador
+        super(message, null, false, false);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
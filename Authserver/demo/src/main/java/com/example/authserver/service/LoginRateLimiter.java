@@ -0,0 +1,145 @@
+package com.example.authserver.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Limite de tentativas de login por username e por endereço do cliente, checado antes de qualquer consulta ou BCrypt.
+// Cada chave tem um token bucket no formato GCRA: um único AtomicLong com o "instante teórico da próxima chegada",
+// atualizado por CAS, sem locks. Falhas de senha consecutivas no mesmo username ativam um bloqueio progressivo
+// (dobra a cada falha acima do limite). Os buckets ficam em caches Caffeine limitados em tamanho e removidos quando ociosos.
+@Component
+public class LoginRateLimiter {
+
+    private final Cache<String, Bucket> userBuckets;
+    private final Cache<String, Bucket> addressBuckets;
+    private final Limit userLimit;
+    private final Limit addressLimit;
+    private final int lockoutThreshold; // Falhas consecutivas até o primeiro bloqueio
+    private final long lockoutBaseNanos;
+    private final long lockoutMaxNanos;
+    private final LongSupplier clock; // System.nanoTime, substituível nos testes
+
+    @Autowired
+    public LoginRateLimiter(@Value("${auth.rate-limit.user.capacity:10}") int userCapacity,
+                            @Value("${auth.rate-limit.user.period:1m}") Duration userPeriod,
+                            @Value("${auth.rate-limit.address.capacity:100}") int addressCapacity,
+                            @Value("${auth.rate-limit.address.period:1m}") Duration addressPeriod,
+                            @Value("${auth.rate-limit.lockout.threshold:5}") int lockoutThreshold,
+                            @Value("${auth.rate-limit.lockout.base:1s}") Duration lockoutBase,
+                            @Value("${auth.rate-limit.lockout.max:15m}") Duration lockoutMax,
+                            @Value("${auth.rate-limit.max-entries:100000}") long maxEntries,
+                            @Value("${auth.rate-limit.idle-timeout:15m}") Duration idleTimeout) {
+        this(userCapacity, userPeriod, addressCapacity, addressPeriod, lockoutThreshold, lockoutBase, lockoutMax,
+                maxEntries, idleTimeout, System::nanoTime);
+    }
+
+    LoginRateLimiter(int userCapacity, Duration userPeriod, int addressCapacity, Duration addressPeriod,
+                     int lockoutThreshold, Duration lockoutBase, Duration lockoutMax,
+                     long maxEntries, Duration idleTimeout, LongSupplier clock) {
+        this.userLimit = new Limit(userCapacity, userPeriod);
+        this.addressLimit = new Limit(addressCapacity, addressPeriod);
+        this.lockoutThreshold = lockoutThreshold;
+        this.lockoutBaseNanos = lockoutBase.toNanos();
+        this.lockoutMaxNanos = lockoutMax.toNanos();
+        this.clock = clock;
+        // Um bucket ocioso não pode sumir antes do fim do maior bloqueio possível
+        Duration idle = idleTimeout.compareTo(lockoutMax) < 0 ? lockoutMax : idleTimeout;
+        this.userBuckets = buckets(maxEntries, idle);
+        this.addressBuckets = buckets(maxEntries, idle);
+    }
+
+    // Consome uma tentativa do endereço e do username. Lança LoginRateLimitedException se o login deve ser recusado.
+    // O endereço é checado primeiro: um cliente já barrado pelo próprio limite não consome as tentativas do username,
+    // senão bastaria um único endereço insistindo para esgotar (e travar) o login da vítima vindo de qualquer lugar.
+    public void acquire(String username, String clientAddress) {
+        long now = clock.getAsLong();
+        if (clientAddress != null) {
+            long wait = addressBuckets.get(clientAddress, key -> new Bucket(now)).tryAcquire(addressLimit, now);
+            if (wait > 0) {
+                throw new LoginRateLimitedException("Limite de tentativas de login por endereço atingido.", Duration.ofNanos(wait));
+            }
+        }
+        Bucket user = userBuckets.get(username, key -> new Bucket(now));
+        long lockedFor = user.lockedUntil.get() - now;
+        if (lockedFor > 0) {
+            throw new LoginRateLimitedException("Muitas tentativas inválidas para este usuário. Tente novamente mais tarde.",
+                    Duration.ofNanos(lockedFor));
+        }
+        long wait = user.tryAcquire(userLimit, now);
+        if (wait > 0) {
+            throw new LoginRateLimitedException("Limite de tentativas de login por usuário atingido.", Duration.ofNanos(wait));
+        }
+    }
+
+    // Senha incorreta (ou usuário inexistente): a partir do limite, bloqueia o username por base * 2^(falhas - limite).
+    // Devolve quanto falta para o fim do bloqueio (Duration.ZERO se o username não está bloqueado).
+    public Duration recordFailure(String username) {
+        long now = clock.getAsLong();
+        Bucket user = userBuckets.get(username, key -> new Bucket(now));
+        int failures = user.failures.incrementAndGet();
+        if (failures < lockoutThreshold) {
+            return Duration.ZERO;
+        }
+        int exponent = Math.min(failures - lockoutThreshold, 30);
+        long lockout = Math.min(lockoutMaxNanos, lockoutBaseNanos << exponent);
+        return Duration.ofNanos(user.lockedUntil.accumulateAndGet(now + lockout, Math::max) - now);
+    }
+
+    public void recordSuccess(String username) {
+        Bucket user = userBuckets.getIfPresent(username);
+        if (user != null) {
+            user.failures.set(0);
+        }
+    }
+
+    private static Cache<String, Bucket> buckets(long maxEntries, Duration idle) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries) // Limita a memória mesmo sob usernames/endereços aleatórios
+                .expireAfterAccess(idle) // Remove buckets ociosos (já cheios de novo)
+                .build();
+    }
+
+    // capacity tentativas de uma vez, recompostas a uma taxa de capacity por period
+    private record Limit(long intervalNanos, long burstNanos) {
+
+        Limit(int capacity, Duration period) {
+            this(period.toNanos() / capacity, period.toNanos());
+        }
+    }
+
+    private static final class Bucket {
+
+        final AtomicLong theoreticalArrival; // GCRA: quando o bucket estaria cheio de novo com as tentativas já aceitas
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicLong lockedUntil;
+
+        Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+            this.lockedUntil = new AtomicLong(now);
+        }
+
+        // Devolve 0 se a tentativa foi aceita, ou quanto falta (ns) para a próxima ser aceita
+        long tryAcquire(Limit limit, long now) {
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long next = Math.max(tat, now) + limit.intervalNanos();
+                long wait = next - now - limit.burstNanos();
+                if (wait > 0) {
+                    return wait; // Recusada sem escrever nada: o custo de uma rejeição é uma leitura
+                }
+                if (theoreticalArrival.compareAndSet(tat, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
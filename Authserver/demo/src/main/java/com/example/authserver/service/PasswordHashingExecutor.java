@@ -0,0 +1,135 @@
+package com.example.authserver.service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+// Executa as comparações BCrypt num pool dedicado, do tamanho dos núcleos e com fila limitada.
+// Quando a fila enche ou o prazo de espera acaba, o login falha rápido (LoginOverloadedException)
+// em vez de ocupar CPU que a validação de tokens e as rotas /api/** precisam.
+@Component
+public class PasswordHashingExecutor {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor rehashExecutor; // Pool próprio: rehash nunca ocupa a fila dos logins
+    private final Duration maxWait; // Tempo máximo que um login espera na fila + execução
+    private final Duration retryAfter; // Valor sugerido ao cliente no cabeçalho Retry-After
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+                                   @Value("${auth.bcrypt.threads:0}") int threads,
+                                   @Value("${auth.bcrypt.queue-capacity:64}") int queueCapacity,
+                                   @Value("${auth.bcrypt.max-wait:2s}") Duration maxWait,
+                                   @Value("${auth.bcrypt.retry-after:1s}") Duration retryAfter,
+                                   @Value("${auth.bcrypt.rehash-queue-capacity:8}") int rehashQueueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+        // 0 (padrão) = um thread por núcleo disponível
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new BcryptThreadFactory("bcrypt-", Thread.NORM_PRIORITY),
+                new ThreadPoolExecutor.AbortPolicy()); // Fila cheia -> RejectedExecutionException
+        // Um thread de prioridade mínima e fila curta; cheia, o rehash é descartado (o próximo login tenta de novo)
+        this.rehashExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(rehashQueueCapacity), new BcryptThreadFactory("bcrypt-rehash-", Thread.MIN_PRIORITY),
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> {
+                // Se o pedido esperou demais na fila, o cliente já desistiu: não gasta CPU com ele. Lança em vez de
+                // devolver false, que seria lido como senha errada (401, tentativa contada para o bloqueio)
+                if (System.nanoTime() - deadline > 0) {
+                    throw new CancellationException("Prazo de espera na fila esgotado");
+                }
+                return passwordEncoder.matches(rawPassword, encodedPassword);
+            });
+        } catch (RejectedExecutionException e) {
+            throw new LoginOverloadedException("Servidor sobrecarregado: fila de autenticação cheia.", retryAfter);
+        }
+        try {
+            return result.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(false);
+            throw new LoginOverloadedException("Servidor sobrecarregado: tempo de espera da autenticação esgotado.", retryAfter);
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new LoginOverloadedException("Autenticação interrompida.", retryAfter);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                throw new LoginOverloadedException("Servidor sobrecarregado: tempo de espera da autenticação esgotado.", retryAfter);
+            }
+            throw new IllegalStateException("Falha ao verificar a senha", e.getCause());
+        }
+    }
+
+    // Indica se o hash armazenado está fora da política atual (custo ou versão) e deve ser refeito
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    // Gera o novo hash fora do pool de logins, sem prender o login. Com os logins saturados (fila não vazia), nem
+    // enfileira: o BCrypt do rehash disputaria CPU com eles, e o próximo login tenta de novo.
+    public void rehashInBackground(String rawPassword, Consumer<String> onEncoded) {
+        if (!executor.getQueue().isEmpty()) {
+            return;
+        }
+        rehashExecutor.execute(() -> onEncoded.accept(passwordEncoder.encode(rawPassword)));
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        rehashExecutor.shutdown();
+    }
+
+    private static final class BcryptThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+        private final String prefix;
+        private final int priority;
+
+        BcryptThreadFactory(String prefix, int priority) {
+            this.prefix = prefix;
+            this.priority = priority;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            // Threads de plataforma de propósito, mesmo com spring.threads.virtual.enabled: o BCrypt é CPU pura e não
+            // deve ocupar as carriers das virtual threads; a requisição virtual só estaciona no Future até o resultado
+            Thread thread = new Thread(task, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        }
+    }
+}
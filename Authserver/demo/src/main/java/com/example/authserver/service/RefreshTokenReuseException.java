@@ -0,0 +1,11 @@
+package com.example.authserver.service;
+
+import org.springframework.security.authentication.BadCredentialsException;
+
+// Refresh token já consumido apresentado de novo (provável vazamento). A família inteira foi revogada.
+public class RefreshTokenReuseException extends BadCredentialsException {
+
+    public RefreshTokenReuseException() {
+        super("Refresh token já utilizado: a sessão foi revogada, faça login novamente.");
+    }
+}
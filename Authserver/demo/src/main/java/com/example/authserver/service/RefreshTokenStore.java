@@ -0,0 +1,150 @@
+package com.example.authserver.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+// Refresh tokens opacos, de uso único, em memória (por nó).
+// O token em si nunca é guardado: o índice é o SHA-256 dos seus bytes (32 bytes por chave), o que basta para
+// segredos aleatórios de 256 bits e mantém a renovação em uma única consulta ao mapa.
+// Cada login abre uma "família"; cada renovação consome o token atual e emite o próximo da mesma família.
+// Apresentar de novo um token já consumido indica vazamento: a família inteira é revogada.
+// A memória é limitada: cada família guarda só o token vivo e o último consumido (o anterior sai a cada rotação),
+// as entradas expiram sozinhas no fim da validade e o total de tokens é limitado por auth.refresh.max-entries.
+@Component
+public class RefreshTokenStore {
+
+    // MessageDigest não é thread-safe: cada thread reutiliza a sua instância
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    });
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<ByteBuffer, Entry> tokens; // SHA-256 do token -> entrada
+    private final Cache<Long, Boolean> revokedFamilies; // Famílias revogadas, marcadas até o último token possível expirar
+    private final long ttlMillis;
+
+    public RefreshTokenStore(@Value("${auth.refresh.ttl:7d}") Duration ttl,
+                             @Value("${auth.refresh.max-entries:100000}") long maxEntries) {
+        this.ttlMillis = ttl.toMillis();
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxEntries) // Acima do limite, as sessões menos usadas perdem o refresh (novo login)
+                .expireAfter(new ExpireAtEntry()) // Remove a entrada no instante de expiração do token
+                .build();
+        // Limitado só pelo tempo, de propósito: descartar uma marca por tamanho reabriria uma família roubada.
+        // Cada marca ocupa poucos bytes e some no fim do TTL, então o total acompanha o ritmo de revogações.
+        this.revokedFamilies = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // Abre uma nova família para o usuário (chamado no login) e devolve o primeiro refresh token
+    public String issue(String username) {
+        return issue(username, ThreadLocalRandom.current().nextLong());
+    }
+
+    // Consome o refresh token e emite o próximo da mesma família.
+    // Lança BadCredentialsException se o token for desconhecido ou expirado, e RefreshTokenReuseException se já tiver sido usado.
+    public Rotation rotate(String refreshToken) {
+        ByteBuffer key = digest(refreshToken);
+        Entry entry = tokens.getIfPresent(key);
+        long now = System.currentTimeMillis();
+        if (entry == null || entry.expiresAt() <= now) {
+            throw new BadCredentialsException("Refresh token inválido ou expirado.");
+        }
+        if (revokedFamilies.getIfPresent(entry.family()) != null) {
+            throw new RefreshTokenReuseException();
+        }
+        // Troca atômica: entre requisições concorrentes com o mesmo token, só uma consome; as demais contam como reuso
+        if (entry.used() || !tokens.asMap().replace(key, entry, entry.markUsed())) {
+            revokeFamily(entry.family());
+            throw new RefreshTokenReuseException();
+        }
+        // O consumido antes deste deixa de ser guardado: reapresentá-lo agora é só um token desconhecido
+        if (entry.previous() != null) {
+            tokens.invalidate(entry.previous());
+        }
+        return new Rotation(entry.username(), entry.family(), issue(entry.username(), entry.family(), key));
+    }
+
+    // Revoga a família (logout ou reuso detectado): nenhum token dela é aceito depois disso
+    public void revokeFamily(long family) {
+        // A marca vive até o último token possível da família expirar (expireAfterWrite = TTL)
+        revokedFamilies.put(family, Boolean.TRUE);
+    }
+
+    public long size() {
+        tokens.cleanUp();
+        return tokens.estimatedSize();
+    }
+
+    private String issue(String username, long family) {
+        return issue(username, family, null);
+    }
+
+    private String issue(String username, long family, ByteBuffer previous) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        // O último token consumido continua guardado até a próxima rotação: é o que permite detectar o reuso
+        tokens.put(digest(token), new Entry(username, family, System.currentTimeMillis() + ttlMillis, false, previous));
+        return token;
+    }
+
+    private static ByteBuffer digest(String token) {
+        // ByteBuffer implementa equals/hashCode pelo conteúdo, servindo como chave do mapa
+        return ByteBuffer.wrap(SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    // Resultado de uma renovação: o dono da família e o próximo refresh token
+    public record Rotation(String username, long family, String refreshToken) {
+    }
+
+    // previous: SHA-256 do token consumido para emitir este (null no primeiro token da família)
+    private record Entry(String username, long family, long expiresAt, boolean used, ByteBuffer previous) {
+
+        Entry markUsed() {
+            return new Entry(username, family, expiresAt, true, previous);
+        }
+    }
+
+    // Expiração por entrada: cada token vive até o seu próprio expiresAt, mesmo depois de marcado como usado
+    private static final class ExpireAtEntry implements Expiry<ByteBuffer, Entry> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Entry value, long currentTime) {
+            long remainingMillis = value.expiresAt() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Entry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
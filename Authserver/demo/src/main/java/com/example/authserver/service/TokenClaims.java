@@ -0,0 +1,52 @@
+package com.example.authserver.service;
+
+import java.time.Instant;
+
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.authserver.validator.TokenRoles;
+
+// Visão tipada das claims de um token já verificado.
+// O payload é analisado uma única vez (na verificação); cada claim só é convertida para o tipo Java quando é lida.
+public final class TokenClaims {
+
+    private final DecodedJWT jwt;
+
+    TokenClaims(DecodedJWT jwt) {
+        this.jwt = jwt;
+    }
+
+    public String subject() {
+        return jwt.getSubject();
+    }
+
+    public String role() {
+        return TokenRoles.role(jwt); // "role" ou o código "r" do formato compacto
+    }
+
+    public String id() {
+        return jwt.getId();
+    }
+
+    public String keyId() {
+        return jwt.getKeyId();
+    }
+
+    public Instant expiresAt() {
+        return jwt.getExpiresAtAsInstant();
+    }
+
+    public Instant issuedAt() {
+        return jwt.getIssuedAtAsInstant();
+    }
+
+    // Lê qualquer claim no tipo pedido (ex.: claim("role", String.class)); devolve null se ausente
+    public <T> T claim(String name, Class<T> type) {
+        Claim claim = jwt.getClaim(name);
+        return claim.isMissing() || claim.isNull() ? null : claim.as(type);
+    }
+
+    public DecodedJWT decoded() {
+        return jwt;
+    }
+}
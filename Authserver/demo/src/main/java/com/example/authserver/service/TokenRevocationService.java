@@ -0,0 +1,81 @@
+package com.example.authserver.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+// Lista de jti revogados, em memória (por nó), consultada em toda verificação de token.
+// Um filtro de Bloom fica na frente do conjunto exato: para o caso comum (token não revogado) a resposta
+// sai do filtro, sem tocar no mapa nem no banco. Cada jti fica na lista só até o 'exp' do seu token;
+// a limpeza periódica remove os expirados e reconstrói o filtro (que não suporta remoção).
+@Component
+public class TokenRevocationService {
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>(); // jti -> exp do token
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final ScheduledExecutorService sweeper;
+    private volatile BloomFilter filter;
+
+    public TokenRevocationService(@Value("${auth.revocation.expected-entries:100000}") long expectedEntries,
+                                  @Value("${auth.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${auth.revocation.sweep-interval:1m}") Duration sweepInterval) {
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "jti-revocation-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = sweepInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweepExpired, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        if (expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return; // Já expirado: nenhum verificador aceitaria o token mesmo
+        }
+        // Primeiro o mapa, depois o filtro: quem vê o bit ligado sempre encontra a entrada
+        revoked.put(jti, expiresAt);
+        filter.add(jti);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false; // Caminho comum: o filtro garante que o jti não foi revogado
+        }
+        return revoked.containsKey(jti);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // Remove os jti cujo token já expirou e reconstrói o filtro só com os que restaram
+    synchronized void sweepExpired() {
+        Instant now = Instant.now();
+        if (!revoked.values().removeIf(exp -> !exp.isAfter(now))) {
+            return;
+        }
+        BloomFilter rebuilt = new BloomFilter(expectedEntries, falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+        // Revogações feitas durante a reconstrução podem ter ido para o filtro antigo: garante que estão no novo
+        revoked.keySet().forEach(rebuilt::add);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
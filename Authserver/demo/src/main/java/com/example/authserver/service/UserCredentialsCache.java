@@ -0,0 +1,70 @@
+package com.example.authserver.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.authserver.model.UserCredentials;
+import com.example.authserver.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Cache local (por nó) de credenciais, compartilhado pelo AuthService e pelo UserDetailsService.
+// Guarda só username, hash e role; as entradas expiram após o TTL e são invalidadas quando o User é salvo ou removido.
+@Component
+public class UserCredentialsCache {
+
+    private final UserRepository userRepository;
+    // Cache assíncrono: a consulta ao banco acontece fora do lock interno do mapa (ver findByUsername)
+    private final AsyncCache<String, UserCredentials> cache;
+
+    public UserCredentialsCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                                @Value("${auth.user-cache.max-entries:10000}") long maxEntries,
+                                @Value("${auth.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries) // Limita a memória usada pelo cache
+                .expireAfterWrite(ttl) // Limita o tempo que uma alteração feita por outro nó pode ficar invisível
+                .recordStats() // Acertos, faltas e remoções
+                .buildAsync();
+        // Publica as estatísticas no actuator (cache.gets, cache.evictions, ...) com a tag cache=users
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public Optional<UserCredentials> findByUsername(String username) {
+        // O mapeamento só publica um future vazio; quem o publicou consulta o banco depois, fora do compute.
+        // Consultar o JDBC dentro do compute (cache.get com loader síncrono) prende a thread ao lock do mapa,
+        // o que com virtual threads fixa (pin) a carrier durante toda a consulta.
+        CompletableFuture<UserCredentials> pending = new CompletableFuture<>();
+        CompletableFuture<UserCredentials> entry = cache.get(username, (key, executor) -> pending);
+        if (entry == pending) {
+            try {
+                // Usuários inexistentes não são cacheados (future completado com null é descartado)
+                pending.complete(userRepository.findCredentialsByUsername(username).orElse(null));
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return Optional.ofNullable(entry.join());
+    }
+
+    public void invalidate(String username) {
+        cache.synchronous().invalidate(username);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+}
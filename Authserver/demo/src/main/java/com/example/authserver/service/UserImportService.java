@@ -0,0 +1,327 @@
+package com.example.authserver.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.authserver.dto.UserImportReport;
+import com.example.authserver.model.User;
+import com.example.authserver.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+
+// Importação em massa de usuários (CSV ou NDJSON), lida em streaming e processada em lotes:
+// validação e checagem de duplicados (uma consulta por lote), BCrypt em paralelo num pool próprio
+// e inserção em lote JDBC (hibernate.jdbc.batch_size, possível porque o id de User vem de uma sequence).
+// Linhas inválidas viram erros no relatório; as demais seguem normalmente.
+@Service
+public class UserImportService {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        // Pelo nome do arquivo (CLI): .csv = CSV; .ndjson, .jsonl ou .json = NDJSON
+        public static Format fromFileName(String fileName) {
+            return fileName.toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+        }
+    }
+
+    private static final Set<String> ROLES = Set.of("ADMIN", "USER");
+    private static final int MAX_USERNAME_LENGTH = 255; // Tamanho padrão da coluna users.username
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool hashingPool; // Separado do common pool (validação em lote) e do pool de login
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public UserImportService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                             PlatformTransactionManager transactionManager, EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             @Value("${auth.import.hash-threads:0}") int hashThreads,
+                             @Value("${auth.import.batch-size:500}") int batchSize,
+                             @Value("${auth.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        // 0 (padrão) = um thread por núcleo disponível
+        this.hashingPool = new ForkJoinPool(hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors());
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public UserImportReport importUsers(Reader source, Format format) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(source);
+        CsvHeader header = null;
+        List<Row> chunk = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = CsvHeader.parse(line); // Primeira linha não vazia do CSV: nomes das colunas
+                continue;
+            }
+            run.total++;
+            Row row = format == Format.CSV ? parseCsv(header, line, lineNumber, run) : parseNdjson(line, lineNumber, run);
+            if (row != null) {
+                chunk.add(row);
+            }
+            if (chunk.size() >= batchSize) {
+                processChunk(chunk, run);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, run);
+        }
+        return run.report();
+    }
+
+    private void processChunk(List<Row> chunk, ImportRun run) {
+        // 1. Validação e duplicados dentro do próprio arquivo
+        List<Row> valid = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            String error = validate(row);
+            if (error == null && !run.seen.add(row.username)) {
+                error = "duplicate_in_file";
+            }
+            if (error != null) {
+                run.error(row, error);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // 2. Usuários que já existem no banco: uma consulta para o lote inteiro
+        Set<String> existing = userRepository.findExistingUsernames(valid.stream().map(Row::username).toList());
+        if (!existing.isEmpty()) {
+            valid.removeIf(row -> {
+                boolean exists = existing.contains(row.username);
+                if (exists) {
+                    run.error(row, "already_exists");
+                }
+                return exists;
+            });
+        }
+
+        // 3. BCrypt em paralelo: é o custo dominante da importação
+        hashAll(valid);
+
+        // 4. Inserção em lote; se o lote falhar (ex.: o mesmo username criado em paralelo), refaz linha a linha
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(valid.stream().map(Row::toUser).toList());
+                userRepository.flush();
+                entityManager.clear(); // Não acumula entidades no contexto de persistência entre lotes
+            });
+            run.imported += valid.size();
+        } catch (DataAccessException e) {
+            for (Row row : valid) {
+                insertOne(row, run);
+            }
+        }
+    }
+
+    private void insertOne(Row row, ImportRun run) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAndFlush(row.toUser());
+                entityManager.clear();
+            });
+            run.imported++;
+        } catch (DataAccessException e) {
+            run.error(row, userRepository.findByUsername(row.username).isPresent() ? "already_exists" : "insert_failed");
+        }
+    }
+
+    private void hashAll(List<Row> rows) {
+        try {
+            hashingPool.submit(() -> rows.parallelStream().forEach(row -> {
+                row.passwordHash = passwordEncoder.encode(row.password);
+                row.password = null; // A senha em texto não fica retida além do necessário
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao gerar os hashes das senhas", e.getCause());
+        }
+    }
+
+    private static String validate(Row row) {
+        if (row.username == null || row.username.isBlank()) {
+            return "missing_username";
+        }
+        if (row.username.length() > MAX_USERNAME_LENGTH) {
+            return "username_too_long";
+        }
+        if (row.password == null || row.password.isEmpty()) {
+            return "missing_password";
+        }
+        if (!ROLES.contains(row.role)) {
+            return "invalid_role";
+        }
+        return null;
+    }
+
+    private Row parseNdjson(String line, long lineNumber, ImportRun run) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            return new Row(lineNumber, text(node, "username"), text(node, "password"), role(text(node, "role")));
+        } catch (IOException e) {
+            run.error(lineNumber, null, "malformed");
+            return null;
+        }
+    }
+
+    private static Row parseCsv(CsvHeader header, String line, long lineNumber, ImportRun run) {
+        List<String> fields = parseCsvLine(line);
+        if (fields == null || header.username < 0 || header.password < 0) {
+            run.error(lineNumber, null, "malformed");
+            return null;
+        }
+        return new Row(lineNumber, field(fields, header.username), field(fields, header.password),
+                role(header.role < 0 ? null : field(fields, header.role)));
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    // Sem role: USER
+    private static String role(String value) {
+        return value == null || value.isBlank() ? "USER" : value.strip().toUpperCase(Locale.ROOT);
+    }
+
+    // CSV (RFC 4180) numa linha: campos separados por vírgula, aspas opcionais e "" como aspas literais.
+    // Devolve null se houver aspas sem fechamento.
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    // Posição das colunas no CSV (-1 = ausente)
+    private record CsvHeader(int username, int password, int role) {
+
+        static CsvHeader parse(String line) {
+            List<String> names = parseCsvLine(line);
+            List<String> normalized = names == null ? List.of()
+                    : names.stream().map(name -> name.strip().toLowerCase(Locale.ROOT)).toList();
+            return new CsvHeader(normalized.indexOf("username"), normalized.indexOf("password"), normalized.indexOf("role"));
+        }
+    }
+
+    private static final class Row {
+
+        final long line;
+        final String username;
+        final String role;
+        String password;
+        String passwordHash;
+
+        Row(long line, String username, String password, String role) {
+            this.line = line;
+            this.username = username == null ? null : username.strip();
+            this.password = password;
+            this.role = role;
+        }
+
+        String username() {
+            return username;
+        }
+
+        User toUser() {
+            return new User(null, username, passwordHash, role);
+        }
+    }
+
+    private final class ImportRun {
+
+        final Set<String> seen = new HashSet<>();
+        final List<UserImportReport.RowError> errors = new ArrayList<>();
+        int total;
+        int imported;
+        int failed;
+
+        void error(Row row, String error) {
+            error(row.line, row.username, error);
+        }
+
+        void error(long line, String username, String error) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new UserImportReport.RowError(line, username, error));
+            }
+        }
+
+        UserImportReport report() {
+            return new UserImportReport(total, imported, failed, List.copyOf(errors), failed > errors.size());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+-- Schema inicial da tabela de usuários (espelha a entidade User)
+
+-- Blocos de 100 ids, igual ao allocationSize de @SequenceGenerator: permite INSERTs em lote JDBC
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 100;
+
+CREATE TABLE users (
+    id       BIGINT       NOT NULL PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role     VARCHAR(255) NOT NULL
+);
+
+-- Índice explícito da consulta do login (where username = ?); também garante a unicidade
+CREATE UNIQUE INDEX ux_users_username ON users (username);
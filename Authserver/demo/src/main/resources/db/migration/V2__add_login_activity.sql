@@ -0,0 +1,6 @@
+-- Atividade de login por usuário (User.lastLoginAt, failedAttempts, lockedUntil).
+-- Escrita só pelo LoginActivityTracker, em lotes periódicos; nunca pelos INSERT/UPDATE do Hibernate.
+
+ALTER TABLE users ADD COLUMN last_login_at TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE users ADD COLUMN failed_attempts INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN locked_until TIMESTAMP(6) WITH TIME ZONE;
@@ -0,0 +1,31 @@
+package com.example.authserver.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CalibratedBCryptPasswordEncoderTests {
+
+    private static final String SALT_AND_HASH = "N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"; // 53 caracteres
+
+    private final CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(10);
+
+    @Test
+    void upgradesOnlyLowerCostsAndOlderVersions() {
+        assertThat(encoder.upgradeEncoding("$2a$09$" + SALT_AND_HASH)).isTrue(); // Custo menor
+        assertThat(encoder.upgradeEncoding("$2$10$" + SALT_AND_HASH)).isTrue(); // Versão original do formato
+
+        assertThat(encoder.upgradeEncoding("$2a$10$" + SALT_AND_HASH)).isFalse();
+        // Custo maior (calibrado por um nó mais rápido) nunca é rebaixado
+        assertThat(encoder.upgradeEncoding("$2a$12$" + SALT_AND_HASH)).isFalse();
+        assertThat(encoder.upgradeEncoding("$2b$10$" + SALT_AND_HASH)).isFalse();
+        assertThat(encoder.upgradeEncoding("$2y$12$" + SALT_AND_HASH)).isFalse();
+    }
+
+    @Test
+    void nonBcryptValuesAreNotUpgraded() {
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("")).isFalse();
+        assertThat(encoder.upgradeEncoding("{noop}senha")).isFalse();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.authserver.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.example.authserver.model.UserCredentials;
+
+class NativeRuntimeHintsTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTests() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersJavaJwtTypesThatExistInTheCurrentVersion() throws Exception {
+        for (String type : NativeRuntimeHints.JAVA_JWT_TYPES) {
+            // Uma atualização do java-jwt que renomeie as classes internas quebra aqui, e não só na imagem nativa
+            Class.forName(type);
+            assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+                    .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        }
+    }
+
+    @Test
+    void registersProjectionConstructorAndResources() throws IOException {
+        assertThat(RuntimeHintsPredicates.reflection().onType(UserCredentials.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/V1__create_users.sql")).accepts(hints);
+        // Versão lida do próprio webjar: atualizar o springdoc não quebra o teste
+        String swaggerUi = "META-INF/resources/webjars/swagger-ui/" + webjarVersion("swagger-ui") + "/index.html";
+        assertThat(getClass().getClassLoader().getResource(swaggerUi)).isNotNull();
+        assertThat(RuntimeHintsPredicates.resource().forResource(swaggerUi)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/maven/org.webjars/swagger-ui/pom.properties"))
+                .accepts(hints);
+    }
+
+    private String webjarVersion(String artifactId) throws IOException {
+        Properties pom = new Properties();
+        try (InputStream in = getClass().getClassLoader()
+                .getResourceAsStream("META-INF/maven/org.webjars/" + artifactId + "/pom.properties")) {
+            assertThat(in).isNotNull();
+            pom.load(in);
+        }
+        return pom.getProperty("version");
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.authserver.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+class RoleJwtAuthenticationConverterTests {
+
+    private final RoleJwtAuthenticationConverter converter = new RoleJwtAuthenticationConverter();
+
+    @Test
+    void mapsRoleClaimToSharedPrecomputedAuthorities() {
+        AbstractAuthenticationToken admin = converter.convert(jwt("admin", "ADMIN"));
+        AbstractAuthenticationToken otherAdmin = converter.convert(jwt("outro", "ADMIN"));
+
+        assertThat(admin.getName()).isEqualTo("admin");
+        assertThat(admin.isAuthenticated()).isTrue();
+        assertThat(AuthorityUtils.authorityListToSet(admin.getAuthorities())).containsExactly("ROLE_ADMIN");
+        // A authority da role é criada uma vez e reaproveitada por todos os tokens
+        assertThat(otherAdmin.getAuthorities().iterator().next()).isSameAs(admin.getAuthorities().iterator().next());
+        assertThat(AuthorityUtils.authorityListToSet(converter.convert(jwt("user", "USER")).getAuthorities()))
+                .containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void mapsCompactRoleCodeToTheSameAuthorities() {
+        Jwt compact = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("admin")
+                .claim("r", 2) // Código de ADMIN no formato compacto
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+
+        assertThat(converter.convert(compact).getAuthorities().iterator().next())
+                .isSameAs(converter.convert(jwt("admin", "ADMIN")).getAuthorities().iterator().next());
+    }
+
+    @Test
+    void tokenWithoutRoleHasNoAuthorities() {
+        assertThat(converter.convert(jwt("anonimo", null)).getAuthorities()).isEmpty();
+    }
+
+    private static Jwt jwt(String subject, String role) {
+        Jwt.Builder builder = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject(subject)
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60));
+        if (role != null) {
+            builder.claim("role", role);
+        }
+        return builder.build();
+    }
+}
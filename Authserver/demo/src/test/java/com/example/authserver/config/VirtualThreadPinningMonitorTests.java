@@ -0,0 +1,60 @@
+package com.example.authserver.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VirtualThreadPinningMonitorTests {
+
+    private final Object lock = new Object();
+
+    @Test
+    void classifiesPinInsideSpringSecurityFrameAsSecurity() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(registry, Duration.ofMillis(5))) {
+            // A pilha passa por DelegatingSecurityContextRunnable.run (org.springframework.security)
+            Thread.ofVirtual().start(new DelegatingSecurityContextRunnable(this::sleepHoldingLock)).join();
+
+            awaitEvents(monitor);
+            assertThat(registry.get("auth.vthread.pinned").tag("path", "security").timer().count()).isGreaterThanOrEqualTo(1);
+            assertThat(registry.find("auth.vthread.pinned").tag("path", "other").timer()).isNull();
+        }
+    }
+
+    @Test
+    void classifiesPinOutsideKnownFramesAsOther() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(registry, Duration.ofMillis(5))) {
+            // Só esta classe de teste (pacote config) na pilha: não é mais confundida com segurança
+            Thread.ofVirtual().start(this::sleepHoldingLock).join();
+
+            awaitEvents(monitor);
+            assertThat(registry.get("auth.vthread.pinned").tag("path", "other").timer().count()).isGreaterThanOrEqualTo(1);
+            assertThat(registry.find("auth.vthread.pinned").tag("path", "security").timer()).isNull();
+        }
+    }
+
+    // Bloquear dentro de synchronized fixa a virtual thread na carrier (Java 21)
+    private void sleepHoldingLock() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // O JFR entrega os eventos em lotes (cerca de 1 s)
+    private static void awaitEvents(VirtualThreadPinningMonitor monitor) throws InterruptedException {
+        for (int i = 0; i < 100 && monitor.pinnedCount() == 0; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(monitor.pinnedCount()).isGreaterThanOrEqualTo(1);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.authserver.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.example.authserver.service.JwtIssuer;
+import com.example.authserver.service.JwtKeyRing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Modo de assinatura assimétrica: tokens RS256 com kid, JWKS publicado e rotação por novos arquivos de chave
+@SpringBootTest(classes = DemoApplication.class)
+@AutoConfigureMockMvc
+class AsymmetricSigningTests {
+
+    private static Path keysDir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @DynamicPropertySource
+    static void signingProperties(DynamicPropertyRegistry registry) throws Exception {
+        keysDir = Files.createTempDirectory("jwt-keys");
+        writeRsaKey(keysDir, "2026-01");
+        registry.add("jwt.signing.mode", () -> "asymmetric");
+        registry.add("jwt.keys.dir", keysDir::toString);
+        registry.add("jwt.keys.algorithm", () -> "RS256");
+    }
+
+    @Test
+    void tokensAreSignedWithActiveKidAndPublishedInJwks() throws Exception {
+        String token = login();
+        assertThat(JWT.decode(token).getAlgorithm()).isEqualTo("RS256");
+        assertThat(JWT.decode(token).getKeyId()).isEqualTo(keyRing.getActiveKid());
+
+        mockMvc.perform(get("/api/hello").header("Authorization", "Bearer " + token))
+               .andExpect(status().isOk());
+
+        String etag = mockMvc.perform(get("/.well-known/jwks.json"))
+               .andExpect(status().isOk())
+               .andExpect(header().string("Cache-Control", "max-age=300, public"))
+               .andExpect(jsonPath("$.keys[?(@.kid == '" + keyRing.getActiveKid() + "')].kty").value("RSA"))
+               .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/.well-known/jwks.json").header("If-None-Match", etag))
+               .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void newKeyFileBecomesActiveAndOldTokensStillVerify() throws Exception {
+        String oldToken = login();
+
+        writeRsaKey(keysDir, "2026-02"); // Kid maior em ordem alfabética: passa a ser a chave ativa
+        keyRing.reloadIfChanged(); // Em produção, o recarregamento periódico faz isso
+
+        String newToken = login();
+        assertThat(JWT.decode(newToken).getKeyId()).isEqualTo("2026-02");
+
+        mockMvc.perform(get("/api/hello").header("Authorization", "Bearer " + oldToken))
+               .andExpect(status().isOk());
+        mockMvc.perform(get("/api/hello").header("Authorization", "Bearer " + newToken))
+               .andExpect(status().isOk());
+        mockMvc.perform(get("/.well-known/jwks.json"))
+               .andExpect(jsonPath("$.keys[?(@.kid == '2026-01')]").exists())
+               .andExpect(jsonPath("$.keys[?(@.kid == '2026-02')]").exists());
+    }
+
+    @Test
+    void signingAlgorithmKeepsKidAndKeyOfItsSnapshot() throws Exception {
+        Path dir = Files.createTempDirectory("jwt-keys");
+        writeRsaKey(dir, "a");
+        try (JwtKeyRing ring = new JwtKeyRing(dir, JwtKeyRing.KeyAlgorithm.RS256, "", Duration.ofHours(1),
+                new ObjectMapper())) {
+            Algorithm before = ring.signingAlgorithm();
+            writeRsaKey(dir, "b");
+            ring.reloadIfChanged();
+
+            // O signer antigo continua com o par "a" inteiro; o novo snapshot assina só com "b"
+            assertThat(before.getSigningKeyId()).isEqualTo("a");
+            assertThat(ring.signingAlgorithm().getSigningKeyId()).isEqualTo("b");
+            JWTVerifier verifier = JWT.require(ring.algorithm()).build();
+            verifier.verify(JwtIssuer.signedBy(before).issue("user", "USER", "j1", 0, Long.MAX_VALUE / 1000));
+            verifier.verify(JwtIssuer.signedBy(ring, JwtIssuer.Format.STANDARD)
+                    .issue("user", "USER", "j2", 0, Long.MAX_VALUE / 1000));
+        }
+    }
+
+    private String login() throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .param("username", "user")
+                .param("password", "password")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+               .andExpect(status().isOk())
+               .andReturn().getResponse().getContentAsString();
+    }
+
+    private static void writeRsaKey(Path dir, String kid) throws NoSuchAlgorithmException, IOException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair pair = generator.generateKeyPair();
+        Files.writeString(dir.resolve(kid + ".key"), pem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+        Files.writeString(dir.resolve(kid + ".pub"), pem("PUBLIC KEY", pair.getPublic().getEncoded()));
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+}
@@ -4,12 +4,14 @@ import com.example.authserver.demo.DemoApplication; // <-- NOVO IMPORT: Para ref
 import com.example.authserver.repository.UserRepository; // <-- Import correto: 'repository' minúsculo
 import com.example.authserver.service.AuthService; 
 import com.example.authserver.service.JwtService; 
+import com.example.authserver.service.UserCredentialsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -17,6 +19,10 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.containsString;
 
@@ -42,6 +48,12 @@ class AuthIntegrationTests {
     @Autowired
     private PasswordEncoder passwordEncoder; // Injetado para codificar senhas ao popular usuários
 
+    @Autowired
+    private io.micrometer.core.instrument.MeterRegistry meterRegistry; // Injetado para verificar as métricas do actuator
+
+    @Autowired
+    private UserCredentialsCache userCredentialsCache; // Injetado para verificar acertos e invalidação do cache
+
     @BeforeEach
     void setup() {
         // Garante que o banco de dados H2 em memória tenha os usuários para os testes
@@ -146,4 +158,348 @@ class AuthIntegrationTests {
                 .header("Authorization", "Bearer " + userToken)) // Adiciona o token no cabeçalho Authorization
                .andExpect(status().isForbidden()); // Espera status 403 (Forbidden - acesso negado por falta de role)
     }
-}
\ No newline at end of file
+
+    @Test
+    void testValidateEndpointReturnsUsernameForValidToken() throws Exception {
+        String token = jwtService.generateToken("user", "USER");
+
+        mockMvc.perform(post("/auth/validate")
+                .param("token", token))
+               .andExpect(status().isOk())
+               .andExpect(content().string("Token válido! Username: user"));
+    }
+
+    @Test
+    void testValidateEndpointRejectsTamperedToken() throws Exception {
+        String token = jwtService.generateToken("user", "USER");
+
+        mockMvc.perform(post("/auth/validate")
+                .param("token", token.substring(0, token.length() - 2) + "xx")) // Assinatura adulterada
+               .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testVerifiedTokenIsSharedBetweenValidateAndResourceServer() throws Exception {
+        String token = jwtService.generateToken("user", "USER");
+
+        // A primeira verificação popula o cache; a segunda devolve a mesma instância já verificada
+        assertThat(jwtService.verifyToken(token)).isSameAs(jwtService.verifyToken(token));
+
+        // O resource server (/api/**) usa o mesmo verificador e aceita o token
+        mockMvc.perform(get("/api/me")
+                .header("Authorization", "Bearer " + token))
+               .andExpect(status().isOk())
+               .andExpect(content().string("Você está logado como: user"));
+    }
+
+    @Test
+    void testBatchValidationReturnsResultsInInputOrder() throws Exception {
+        String userToken = jwtService.generateToken("user", "USER");
+        String adminToken = jwtService.generateToken("admin", "ADMIN");
+        String tampered = userToken.substring(0, userToken.length() - 2) + "xx";
+
+        mockMvc.perform(post("/auth/validate/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"" + userToken + "\",\"" + tampered + "\",\"lixo\",\"" + adminToken + "\"]"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.length()").value(4))
+               .andExpect(jsonPath("$[0].valid").value(true))
+               .andExpect(jsonPath("$[0].subject").value("user"))
+               .andExpect(jsonPath("$[0].role").value("USER"))
+               .andExpect(jsonPath("$[0].expiresAt", notNullValue()))
+               .andExpect(jsonPath("$[1].valid").value(false))
+               .andExpect(jsonPath("$[1].error").value("invalid_signature"))
+               .andExpect(jsonPath("$[2].error").value("malformed"))
+               .andExpect(jsonPath("$[3].subject").value("admin"));
+    }
+
+    @Test
+    void testStreamingValidationWritesOneResultPerLine() throws Exception {
+        String token = jwtService.generateToken("user", "USER");
+
+        var result = mockMvc.perform(post("/auth/validate/stream")
+                .contentType("application/x-ndjson")
+                .content(token + "\n\"" + token + "\"\nlixo\n"))
+               .andExpect(request().asyncStarted())
+               .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isOk())
+               .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).contains("\"valid\":true").contains("\"subject\":\"user\"");
+        assertThat(lines[1]).contains("\"valid\":true");
+        assertThat(lines[2]).contains("\"error\":\"malformed\"");
+    }
+
+    @Test
+    void testLoginRehashesPasswordStoredWithLowerCost() throws Exception {
+        // Usuário com hash de custo 4 (menor que o custo calibrado na inicialização)
+        String legacyHash = new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder(4).encode("legado");
+        userRepository.findByUsername("legacy").ifPresent(userRepository::delete);
+        userRepository.save(new com.example.authserver.model.User(null, "legacy", legacyHash, "USER"));
+        assertThat(passwordEncoder.upgradeEncoding(legacyHash)).isTrue();
+
+        mockMvc.perform(post("/auth/login")
+                .param("username", "legacy")
+                .param("password", "legado")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+               .andExpect(status().isOk());
+
+        // O rehash roda em segundo plano no pool de BCrypt: aguarda o novo hash ser gravado
+        String storedHash = legacyHash;
+        for (int i = 0; i < 100 && storedHash.equals(legacyHash); i++) {
+            Thread.sleep(50);
+            storedHash = userRepository.findByUsername("legacy").orElseThrow().getPassword();
+        }
+        assertThat(storedHash).isNotEqualTo(legacyHash);
+        assertThat(passwordEncoder.upgradeEncoding(storedHash)).isFalse();
+        assertThat(passwordEncoder.matches("legado", storedHash)).isTrue();
+    }
+
+    @Test
+    void testUserCacheServesRepeatedLoginsAndIsInvalidatedOnUpdate() throws Exception {
+        userRepository.findByUsername("cached").ifPresent(userRepository::delete);
+        userRepository.save(new com.example.authserver.model.User(null, "cached", passwordEncoder.encode("antiga"), "USER"));
+
+        long hitsBefore = userCredentialsCache.stats().hitCount();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/auth/login")
+                    .param("username", "cached")
+                    .param("password", "antiga")
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                   .andExpect(status().isOk());
+        }
+        // O primeiro login carrega do banco; os seguintes são atendidos pelo cache
+        assertThat(userCredentialsCache.stats().hitCount() - hitsBefore).isGreaterThanOrEqualTo(2);
+
+        // Alterar a senha invalida a entrada: a senha antiga deixa de valer imediatamente
+        com.example.authserver.model.User cached = userRepository.findByUsername("cached").orElseThrow();
+        cached.setPassword(passwordEncoder.encode("nova"));
+        userRepository.save(cached);
+
+        mockMvc.perform(post("/auth/login")
+                .param("username", "cached")
+                .param("password", "antiga")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+               .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/login")
+                .param("username", "cached")
+                .param("password", "nova")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+               .andExpect(status().isOk());
+    }
+
+    @Test
+    void testIntrospectionReturnsTypedClaimsCacheableUntilExp() throws Exception {
+        String token = jwtService.generateToken("admin", "ADMIN");
+
+        mockMvc.perform(post("/auth/introspect")
+                .param("token", token))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.active").value(true))
+               .andExpect(jsonPath("$.sub").value("admin"))
+               .andExpect(jsonPath("$.role").value("ADMIN"))
+               .andExpect(jsonPath("$.exp").isNumber())
+               .andExpect(jsonPath("$.iat").isNumber())
+               .andExpect(jsonPath("$.token_type").value("Bearer"))
+               .andExpect(header().string("Cache-Control", containsString("max-age=")));
+
+        mockMvc.perform(post("/auth/introspect")
+                .param("token", "lixo"))
+               .andExpect(status().isOk())
+               .andExpect(content().json("{\"active\":false}", JsonCompareMode.STRICT));
+
+        // Claims numéricas não se perdem mais na conversão (antes exp/iat voltavam null)
+        assertThat(jwtService.getAllClaimsFromToken(token).get("exp")).isInstanceOf(Number.class);
+    }
+
+    @Test
+    void testLoginPhasesAndValidationOutcomesAreMeasured() throws Exception {
+        mockMvc.perform(post("/auth/login")
+                .param("username", "user")
+                .param("password", "password")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+               .andExpect(status().isOk());
+        String token = jwtService.generateToken("user", "USER");
+        mockMvc.perform(post("/auth/validate").param("token", token.substring(0, token.length() - 2) + "xx"))
+               .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/hello").header("Authorization", "Bearer lixo"))
+               .andExpect(status().isUnauthorized());
+
+        assertThat(meterRegistry.get("auth.login").tag("outcome", "success").timer().count()).isPositive();
+        for (String phase : new String[] {"lookup", "bcrypt", "sign"}) {
+            assertThat(meterRegistry.get("auth.login.phase").tag("phase", phase).timer().count()).isPositive();
+        }
+        assertThat(meterRegistry.get("auth.token.verify").tag("outcome", "invalid_signature").tag("cache", "miss").timer().count()).isPositive();
+        assertThat(meterRegistry.get("auth.token.decode").tag("outcome", "malformed").timer().count()).isPositive();
+    }
+
+    @Test
+    void testRevokedTokenIsRejectedByValidateAndResourceServer() throws Exception {
+        String token = jwtService.generateToken("user", "USER");
+        assertThat(com.auth0.jwt.JWT.decode(token).getId()).isNotBlank(); // Todo token tem jti
+
+        // Antes da revogação o token é aceito (e fica no cache de tokens verificados)
+        mockMvc.perform(get("/api/hello").header("Authorization", "Bearer " + token))
+               .andExpect(status().isOk());
+
+        mockMvc.perform(post("/auth/revoke").param("token", token))
+               .andExpect(status().isOk());
+
+        mockMvc.perform(post("/auth/validate").param("token", token))
+               .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/hello").header("Authorization", "Bearer " + token))
+               .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/validate/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"" + token + "\"]"))
+               .andExpect(jsonPath("$[0].error").value("revoked"));
+
+        // Outros tokens do mesmo usuário continuam válidos
+        assertThat(jwtService.validateToken(jwtService.generateToken("user", "USER"))).isTrue();
+    }
+
+    @Test
+    void testRefreshTokenRotatesAndReuseRevokesTheSession() throws Exception {
+        String refresh1 = mockMvc.perform(post("/auth/login")
+                .param("username", "user")
+                .param("password", "password")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+               .andExpect(status().isOk())
+               .andExpect(header().string("X-Refresh-Token", notNullValue()))
+               .andReturn().getResponse().getHeader("X-Refresh-Token");
+
+        // A renovação devolve um novo JWT e um novo refresh token (o anterior fica consumido)
+        var renewed = mockMvc.perform(post("/auth/refresh").param("refresh_token", refresh1))
+               .andExpect(status().isOk())
+               .andExpect(header().string("Cache-Control", containsString("no-store")))
+               .andReturn().getResponse();
+        String refresh2 = renewed.getHeader("X-Refresh-Token");
+        assertThat(refresh2).isNotEqualTo(refresh1);
+        assertThat(jwtService.validateToken(renewed.getContentAsString())).isTrue();
+        assertThat(jwtService.getUsernameFromToken(renewed.getContentAsString())).isEqualTo("user");
+
+        // Reapresentar o token consumido é reuso: a família inteira é revogada, inclusive o refresh2
+        mockMvc.perform(post("/auth/refresh").param("refresh_token", refresh1))
+               .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/refresh").param("refresh_token", refresh2))
+               .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/auth/refresh").param("refresh_token", "desconhecido"))
+               .andExpect(status().isUnauthorized());
+        assertThat(meterRegistry.get("auth.refresh").tag("outcome", "reused").timer().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void testRepeatedBadPasswordsLockTheUsernameWithRetryAfter() throws Exception {
+        userRepository.findByUsername("bruteforce").ifPresent(userRepository::delete);
+        userRepository.save(new com.example.authserver.model.User(null, "bruteforce", passwordEncoder.encode("certa"), "USER"));
+
+        // auth.rate-limit.lockout.threshold = 5 falhas seguidas
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/auth/login")
+                    .param("username", "bruteforce")
+                    .param("password", "errada" + i)
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                   .andExpect(status().isUnauthorized());
+        }
+        // Bloqueado: nem a senha correta passa, e a recusa acontece antes do BCrypt
+        mockMvc.perform(post("/auth/login")
+                .param("username", "bruteforce")
+                .param("password", "certa")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+               .andExpect(status().isTooManyRequests())
+               .andExpect(header().exists("Retry-After"));
+        // Outros usuários do mesmo endereço não são afetados
+        mockMvc.perform(post("/auth/login")
+                .param("username", "admin")
+                .param("password", "123456")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+               .andExpect(status().isOk());
+    }
+
+    @Test
+    void testAdminOnlyMethodsRejectUserRoleAndAcceptAdminRole() throws Exception {
+        // @PreAuthorize("hasRole('ADMIN')") com a role vinda da claim "role" do token
+        String userToken = jwtService.generateToken("user", "USER");
+        String adminToken = jwtService.generateToken("admin", "ADMIN");
+
+        mockMvc.perform(post("/api/admin/users/import")
+                .header("Authorization", "Bearer " + userToken)
+                .contentType("text/csv")
+                .content("username,password\nsvc-negado,segredo\n"))
+               .andExpect(status().isForbidden());
+        assertThat(userRepository.findByUsername("svc-negado")).isEmpty();
+
+        mockMvc.perform(get("/api/hello")
+                .header("Authorization", "Bearer " + userToken))
+               .andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin")
+                .header("Authorization", "Bearer " + adminToken))
+               .andExpect(status().isOk());
+    }
+
+    @Test
+    void testBulkImportReportsPerRowErrorsWithoutAbortingTheImport() throws Exception {
+        String adminToken = jwtService.generateToken("admin", "ADMIN");
+        String csv = """
+                username,password,role
+                svc-import-1,segredo1,USER
+                svc-import-2,"com,virgula",admin
+                svc-import-1,outra,USER
+                admin,qualquer,ADMIN
+                svc-import-3,segredo3,SUPERUSER
+                svc-import-4,,USER
+                """;
+
+        mockMvc.perform(post("/api/admin/users/import")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType("text/csv")
+                .content(csv))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.total").value(6))
+               .andExpect(jsonPath("$.imported").value(2))
+               .andExpect(jsonPath("$.failed").value(4))
+               .andExpect(jsonPath("$.errors[?(@.line == 4)].error").value("duplicate_in_file"))
+               .andExpect(jsonPath("$.errors[?(@.line == 5)].error").value("already_exists"))
+               .andExpect(jsonPath("$.errors[?(@.line == 6)].error").value("invalid_role"))
+               .andExpect(jsonPath("$.errors[?(@.line == 7)].error").value("missing_password"));
+
+        assertThat(userRepository.findByUsername("svc-import-2").orElseThrow().getRole()).isEqualTo("ADMIN");
+        mockMvc.perform(post("/auth/login")
+                .param("username", "svc-import-2")
+                .param("password", "com,virgula")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+               .andExpect(status().isOk());
+
+        String ndjson = """
+                {"username":"svc-import-5","password":"segredo5"}
+                {isto não é json
+                {"username":"svc-import-6","password":"segredo6","role":"ADMIN"}
+                """;
+        mockMvc.perform(post("/api/admin/users/import")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.imported").value(2))
+               .andExpect(jsonPath("$.errors[0].line").value(2))
+               .andExpect(jsonPath("$.errors[0].error").value("malformed"));
+        assertThat(userRepository.findByUsername("svc-import-5").orElseThrow().getRole()).isEqualTo("USER");
+    }
+
+    @Test
+    void testBulkImportIsForbiddenForUserRole() throws Exception {
+        String userToken = jwtService.generateToken("user", "USER");
+
+        mockMvc.perform(post("/api/admin/users/import")
+                .header("Authorization", "Bearer " + userToken)
+                .contentType("text/csv")
+                .content("username,password,role\nsvc-intruso,segredo,ADMIN\n"))
+               .andExpect(status().isForbidden());
+        assertThat(userRepository.findByUsername("svc-intruso")).isEmpty();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.authserver.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.authserver.service.JwtIssuer;
+import com.example.authserver.service.JwtService;
+
+// Formato compacto (jwt.format=compact): tokens menores aceitos pelo /auth/* e pelo resource server de /api/**,
+// sem deixar de aceitar os tokens no formato padrão emitidos antes da troca
+@SpringBootTest(classes = DemoApplication.class, properties = "jwt.format=compact")
+@AutoConfigureMockMvc
+class CompactTokenFormatTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Test
+    void loginIssuesCompactTokensThatAuthorizeByRoleCode() throws Exception {
+        String adminToken = login("admin", "123456");
+        String userToken = login("user", "password");
+
+        DecodedJWT decoded = JWT.decode(adminToken);
+        assertThat(decoded.getType()).isNull();
+        assertThat(decoded.getClaims()).containsOnlyKeys("sub", "r", "jti", "exp");
+
+        mockMvc.perform(get("/api/admin").header("Authorization", "Bearer " + adminToken))
+               .andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin").header("Authorization", "Bearer " + userToken))
+               .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/auth/introspect").param("token", adminToken))
+               .andExpect(jsonPath("$.active").value(true))
+               .andExpect(jsonPath("$.role").value("ADMIN"))
+               .andExpect(jsonPath("$.iat").doesNotExist());
+        assertThat(jwtService.validate(userToken).role()).isEqualTo("USER");
+    }
+
+    @Test
+    void standardTokensStillVerify() throws Exception {
+        String standard = JwtIssuer.hmac256(secret).issue("admin", "ADMIN", "jti-padrao",
+                System.currentTimeMillis() / 1000, System.currentTimeMillis() / 1000 + 60);
+
+        mockMvc.perform(get("/api/admin").header("Authorization", "Bearer " + standard))
+               .andExpect(status().isOk());
+        assertThat(jwtService.validate(standard).role()).isEqualTo("ADMIN");
+    }
+
+    private String login(String username, String password) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .param("username", username)
+                .param("password", password)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+               .andExpect(status().isOk())
+               .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.authserver.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.authserver.model.User;
+import com.example.authserver.repository.UserRepository;
+import com.example.authserver.service.AuthService;
+import com.example.authserver.service.LoginActivityTracker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Último login, falhas consecutivas e bloqueio: acumulados em memória e gravados só no flush (periódico ou no shutdown).
+// O intervalo alto deixa o flush periódico fora do caminho; cada teste grava explicitamente.
+@SpringBootTest(classes = DemoApplication.class, properties = "auth.login-tracking.flush-interval=1h")
+class LoginActivityTrackingTests {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private LoginActivityTracker tracker;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User createUser(String username) {
+        return userRepository.save(new User(null, username, passwordEncoder.encode("senha"), "USER"));
+    }
+
+    private void loginFails(String username) {
+        assertThatThrownBy(() -> authService.authenticateUserAndGenerateToken(username, "errada", null))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void loginsAreCoalescedAndWrittenOnlyOnFlush() {
+        createUser("rastreado");
+        Instant before = Instant.now().minusSeconds(1);
+
+        loginFails("rastreado");
+        loginFails("rastreado");
+        assertThat(userRepository.findByUsername("rastreado").orElseThrow().getFailedAttempts()).isZero(); // Ainda em memória
+
+        tracker.flush();
+        User afterFailures = userRepository.findByUsername("rastreado").orElseThrow();
+        assertThat(afterFailures.getFailedAttempts()).isEqualTo(2);
+        assertThat(afterFailures.getLastLoginAt()).isNull();
+
+        loginFails("rastreado"); // Falha, sucesso e falha no mesmo intervalo: uma única escrita
+        authService.authenticateUserAndGenerateToken("rastreado", "senha", null);
+        loginFails("rastreado");
+        assertThat(tracker.pendingCount()).isEqualTo(1);
+
+        assertThat(tracker.flush()).isEqualTo(1);
+        User afterSuccess = userRepository.findByUsername("rastreado").orElseThrow();
+        assertThat(afterSuccess.getFailedAttempts()).isEqualTo(1); // Recomeça no sucesso
+        assertThat(afterSuccess.getLastLoginAt()).isAfter(before);
+    }
+
+    @Test
+    void lockoutFromTheRateLimiterIsRecorded() {
+        createUser("bloqueado");
+        for (int i = 0; i < 5; i++) { // auth.rate-limit.lockout.threshold
+            loginFails("bloqueado");
+        }
+        tracker.flush();
+
+        User user = userRepository.findByUsername("bloqueado").orElseThrow();
+        assertThat(user.getFailedAttempts()).isEqualTo(5);
+        assertThat(user.getLockedUntil()).isAfter(Instant.now().minusSeconds(1));
+    }
+
+    @Test
+    void savingTheEntityDoesNotOverwriteTheCounters() {
+        createUser("rehash");
+        loginFails("rehash");
+        tracker.flush();
+
+        User user = userRepository.findByUsername("rehash").orElseThrow();
+        user.setPassword(passwordEncoder.encode("outra")); // Como a troca de hash em segundo plano
+        userRepository.save(user);
+
+        assertThat(jdbcTemplate.queryForObject("select failed_attempts from users where username = 'rehash'", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void failedBatchIsRolledBackAndRetriedWithoutCountingTwice() {
+        createUser("lote-ok");
+        createUser("lote-ruim");
+        jdbcTemplate.update("update users set failed_attempts = ? where username = 'lote-ruim'", Integer.MAX_VALUE);
+        LoginActivityTracker batch = new LoginActivityTracker(jdbcTemplate, transactionManager, true, Duration.ofHours(1),
+                500, 100, new SimpleMeterRegistry());
+        batch.loginFailed("lote-ok", Duration.ZERO);
+        batch.loginFailed("lote-ruim", Duration.ZERO); // Estoura o INTEGER: o lote inteiro falha
+
+        assertThatThrownBy(batch::flush).isInstanceOf(DataAccessException.class);
+        assertThat(failedAttempts("lote-ok")).isZero(); // Desfeito junto com a linha que falhou
+        assertThat(batch.pendingCount()).isEqualTo(2);
+
+        jdbcTemplate.update("update users set failed_attempts = 0 where username = 'lote-ruim'");
+        assertThat(batch.flush()).isEqualTo(2);
+        assertThat(failedAttempts("lote-ok")).isEqualTo(1);
+        assertThat(failedAttempts("lote-ruim")).isEqualTo(1);
+        batch.close();
+    }
+
+    private Integer failedAttempts(String username) {
+        return jdbcTemplate.queryForObject("select failed_attempts from users where username = ?", Integer.class, username);
+    }
+
+    @Test
+    void pendingActivityIsWrittenOnShutdown() {
+        createUser("desligando");
+        LoginActivityTracker shuttingDown = new LoginActivityTracker(jdbcTemplate, transactionManager, true, Duration.ofHours(1),
+                500, 100, new SimpleMeterRegistry());
+        shuttingDown.loginFailed("desligando", Duration.ZERO);
+
+        shuttingDown.close();
+
+        assertThat(userRepository.findByUsername("desligando").orElseThrow().getFailedAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownUsernamesBeyondTheLimitAreDropped() {
+        LoginActivityTracker bounded = new LoginActivityTracker(jdbcTemplate, transactionManager, true, Duration.ofHours(1),
+                500, 2, new SimpleMeterRegistry());
+        bounded.loginFailed("a", Duration.ZERO);
+        bounded.loginFailed("b", Duration.ZERO);
+        bounded.loginFailed("c", Duration.ZERO); // Descartado: limite de 2 usuários pendentes
+        bounded.loginFailed("a", Duration.ZERO); // Username já pendente: continua sendo acumulado
+
+        assertThat(bounded.pendingCount()).isEqualTo(2);
+        bounded.close();
+    }
+}
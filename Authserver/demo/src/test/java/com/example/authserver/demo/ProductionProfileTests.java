@@ -0,0 +1,87 @@
+package com.example.authserver.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.authserver.model.User;
+import com.example.authserver.model.UserCredentials;
+import com.example.authserver.repository.UserRepository;
+import com.example.authserver.service.LoginActivityTracker;
+
+// Profile prod: banco H2 em arquivo (diretório temporário), schema criado pelo Flyway e apenas validado pelo Hibernate
+@SpringBootTest(classes = DemoApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("prod")
+class ProductionProfileTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LoginActivityTracker loginActivityTracker;
+
+    @DynamicPropertySource
+    static void productionProperties(DynamicPropertyRegistry registry) throws Exception {
+        Path dataDir = Files.createTempDirectory("authserver-db");
+        registry.add("AUTH_DB_PATH", () -> dataDir.resolve("authserver").toString());
+        registry.add("JWT_SECRET", () -> "segredoDeTesteDoProfileDeProducaoComMaisDe32Caracteres");
+    }
+
+    @Test
+    void schemaComesFromVersionedMigrations() {
+        Integer applied = jdbcTemplate.queryForObject(
+                "select count(*) from \"flyway_schema_history\" where \"version\" in ('1', '2') and \"success\"", Integer.class);
+        assertThat(applied).isEqualTo(2);
+
+        Boolean unique = jdbcTemplate.queryForObject(
+                "select index_type_name = 'UNIQUE INDEX' from information_schema.indexes"
+                        + " where table_name = 'USERS' and index_name = 'UX_USERS_USERNAME'", Boolean.class);
+        assertThat(unique).isTrue();
+    }
+
+    @Test
+    void noSeededUsersAndLoginUsesProjection() throws Exception {
+        assertThat(userRepository.findByUsername("admin")).isEmpty(); // Sem admin/123456 em produção
+
+        userRepository.save(new User(null, "operador", passwordEncoder.encode("senhaForte"), "ADMIN"));
+        assertThat(userRepository.findCredentialsByUsername("operador"))
+                .get()
+                .extracting(UserCredentials::username, UserCredentials::role)
+                .containsExactly("operador", "ADMIN");
+
+        mockMvc.perform(post("/auth/login")
+                        .param("username", "operador")
+                        .param("password", "senhaForte")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+               .andExpect(status().isOk());
+
+        // Colunas da V2: a atividade do login chega ao banco no flush do write-behind
+        loginActivityTracker.flush();
+        assertThat(userRepository.findByUsername("operador").orElseThrow().getLastLoginAt()).isNotNull();
+    }
+}
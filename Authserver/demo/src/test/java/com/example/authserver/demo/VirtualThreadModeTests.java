@@ -0,0 +1,49 @@
+package com.example.authserver.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.authserver.config.VirtualThreadPinningMonitor;
+import com.example.authserver.service.JwtService;
+
+// Sobe a aplicação com o profile virtual-threads numa porta real (o MockMvc não passa pelo Tomcat)
+@SpringBootTest(classes = DemoApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("virtual-threads")
+class VirtualThreadModeTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor; // Só existe no modo de virtual threads
+
+    @Test
+    void loginAndProtectedRouteWorkOnVirtualThreads() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=admin&password=123456"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(login.statusCode()).isEqualTo(200);
+        assertThat(jwtService.validateToken(login.body())).isTrue();
+
+        HttpResponse<String> hello = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/hello"))
+                .header("Authorization", "Bearer " + login.body())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(hello.statusCode()).isEqualTo(200);
+        assertThat(pinningMonitor).isNotNull();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.authserver.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.authserver.demo.DemoApplication;
+import com.example.authserver.loadtest.OpenLoopLoadGenerator.Workload;
+import com.example.authserver.loadtest.OpenLoopLoadGenerator.WorkloadResult;
+import com.example.authserver.model.User;
+import com.example.authserver.repository.UserRepository;
+import com.example.authserver.service.JwtService;
+
+// Teste de carga com carga mista (login, validate, /api/hello, /api/admin, /api/me) contra a aplicação numa porta aleatória.
+// Não roda no build normal: mvn -Ploadtest verify
+// Gera target/loadtest/report.json e falha se p99 ou vazão regredirem além dos limites em relação ao baseline.
+// Sem baseline (primeira execução na máquina), grava o resultado como baseline em vez de passar sem comparar.
+// Propriedades (-D): loadtest.duration, loadtest.warmup, loadtest.users, loadtest.rate.<workload>,
+// loadtest.baseline, loadtest.max-p99-regression, loadtest.max-throughput-regression, loadtest.update-baseline
+@Tag("loadtest")
+// Toda a carga sai de um único endereço (localhost): o limite de login por endereço é afrouxado para não mascarar a medição
+@SpringBootTest(classes = DemoApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "auth.rate-limit.address.capacity=1000000")
+class LoadTestHarnessTests {
+
+    private static final String PASSWORD = "loadtest";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void mixedWorkloadStaysWithinBaseline() throws Exception {
+        int users = Integer.getInteger("loadtest.users", 200);
+        List<String> usernames = createUsers(users);
+        // Tokens emitidos antes da carga: 1 em cada 10 usuários é ADMIN
+        List<String> userTokens = new ArrayList<>();
+        List<String> adminTokens = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            boolean admin = i % 10 == 0;
+            (admin ? adminTokens : userTokens).add(jwtService.generateToken(usernames.get(i), admin ? "ADMIN" : "USER"));
+        }
+
+        String base = "http://localhost:" + port;
+        List<Workload> workloads = List.of(
+                new Workload("login", rate("login", 20), i -> form(base + "/auth/login",
+                        "username=" + usernames.get((int) (i % users)) + "&password=" + PASSWORD)),
+                new Workload("validate", rate("validate", 400), i -> form(base + "/auth/validate",
+                        "token=" + URLEncoder.encode(pick(userTokens, i), StandardCharsets.UTF_8))),
+                new Workload("hello", rate("hello", 300), i -> bearer(base + "/api/hello", pick(userTokens, i))),
+                new Workload("admin", rate("admin", 100), i -> bearer(base + "/api/admin", pick(adminTokens, i))),
+                new Workload("me", rate("me", 300), i -> bearer(base + "/api/me", pick(userTokens, i))));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1) // Tomcat sem TLS: evita a negociação h2c a cada conexão
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Map<String, WorkloadResult> results = new OpenLoopLoadGenerator(client).run(workloads,
+                Duration.parse("PT" + System.getProperty("loadtest.warmup", "5s")),
+                Duration.parse("PT" + System.getProperty("loadtest.duration", "20s")));
+
+        Path report = Path.of("target/loadtest/report.json");
+        LoadTestReport.write(results, report);
+        results.forEach((name, r) -> System.out.printf("%-9s %7d req  %5d erros  %8.1f req/s  p50 %7.2f  p99 %7.2f  p99.9 %7.2f ms%n",
+                name, r.requests(), r.errors(), r.throughput(), r.p50Ms(), r.p99Ms(), r.p999Ms()));
+
+        Path baseline = Path.of(System.getProperty("loadtest.baseline", "src/test/resources/loadtest/baseline.json"));
+        // Primeira execução nesta máquina (ou atualização pedida): grava o baseline; as próximas comparam com ele
+        if (Boolean.getBoolean("loadtest.update-baseline") || !Files.exists(baseline)) {
+            LoadTestReport.write(results, baseline);
+            System.out.println("📌 Baseline gravado em " + baseline + ": as próximas execuções falham se regredirem em relação a ele.");
+            return;
+        }
+        List<String> regressions = LoadTestReport.regressions(LoadTestReport.read(baseline), results,
+                Double.parseDouble(System.getProperty("loadtest.max-p99-regression", "0.25")),
+                Double.parseDouble(System.getProperty("loadtest.max-throughput-regression", "0.10")));
+        assertThat(regressions).as("Regressões em relação a " + baseline).isEmpty();
+    }
+
+    // Muitos usuários distintos (exercitam o cache de credenciais) com o mesmo hash, para não gastar minutos com BCrypt
+    private List<String> createUsers(int count) {
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<String> usernames = new ArrayList<>();
+        List<User> missing = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String username = "loadtest-" + i;
+            usernames.add(username);
+            if (userRepository.findByUsername(username).isEmpty()) {
+                missing.add(new User(null, username, hash, i % 10 == 0 ? "ADMIN" : "USER"));
+            }
+        }
+        userRepository.saveAll(missing);
+        return usernames;
+    }
+
+    private static double rate(String workload, double defaultRate) {
+        return Double.parseDouble(System.getProperty("loadtest.rate." + workload, String.valueOf(defaultRate)));
+    }
+
+    private static String pick(List<String> tokens, long i) {
+        return tokens.get((int) (i % tokens.size()));
+    }
+
+    private static HttpRequest form(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest bearer(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + token).GET().build();
+    }
+}
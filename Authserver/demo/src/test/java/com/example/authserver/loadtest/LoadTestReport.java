@@ -0,0 +1,57 @@
+package com.example.authserver.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.authserver.loadtest.OpenLoopLoadGenerator.WorkloadResult;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Relatório JSON do teste de carga (um objeto por workload) e comparação com o baseline armazenado.
+final class LoadTestReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadTestReport() {
+    }
+
+    static void write(Map<String, WorkloadResult> results, Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        MAPPER.writeValue(file.toFile(), results);
+    }
+
+    static Map<String, WorkloadResult> read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), new TypeReference<LinkedHashMap<String, WorkloadResult>>() { });
+    }
+
+    // Devolve a lista de regressões: p99 acima de (1 + maxP99Regression) x baseline,
+    // ou vazão abaixo de (1 - maxThroughputRegression) x baseline. Lista vazia = aprovado.
+    static List<String> regressions(Map<String, WorkloadResult> baseline, Map<String, WorkloadResult> current,
+                                    double maxP99Regression, double maxThroughputRegression) {
+        List<String> failures = new ArrayList<>();
+        baseline.forEach((name, expected) -> {
+            WorkloadResult actual = current.get(name);
+            if (actual == null) {
+                failures.add(name + ": workload ausente na execução atual");
+                return;
+            }
+            double p99Limit = expected.p99Ms() * (1 + maxP99Regression);
+            if (actual.p99Ms() > p99Limit) {
+                failures.add(String.format("%s: p99 %.2f ms > limite %.2f ms (baseline %.2f ms)",
+                        name, actual.p99Ms(), p99Limit, expected.p99Ms()));
+            }
+            double throughputLimit = expected.throughput() * (1 - maxThroughputRegression);
+            if (actual.throughput() < throughputLimit) {
+                failures.add(String.format("%s: vazão %.1f req/s < limite %.1f req/s (baseline %.1f req/s)",
+                        name, actual.throughput(), throughputLimit, expected.throughput()));
+            }
+        });
+        return failures;
+    }
+}
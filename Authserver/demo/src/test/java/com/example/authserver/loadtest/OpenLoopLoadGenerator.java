@@ -0,0 +1,119 @@
+package com.example.authserver.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+// Gerador de carga em malha aberta: cada workload dispara requisições num ritmo fixo (req/s), independente
+// das respostas. A latência é medida a partir do instante planejado de envio, e não do envio real, para que
+// atrasos do próprio servidor não escondam a fila (correção de "coordinated omission").
+final class OpenLoopLoadGenerator {
+
+    // request recebe o número sequencial da requisição (permite alternar usuários/tokens)
+    record Workload(String name, double ratePerSecond, LongFunction<HttpRequest> request) {
+    }
+
+    record WorkloadResult(long requests, long errors, double throughput,
+                          double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final HttpClient client;
+
+    OpenLoopLoadGenerator(HttpClient client) {
+        this.client = client;
+    }
+
+    Map<String, WorkloadResult> run(List<Workload> workloads, Duration warmup, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        List<Runner> runners = new ArrayList<>();
+        for (Workload workload : workloads) {
+            Runner runner = new Runner(workload, start, measureFrom, end);
+            runners.add(runner);
+            runner.thread.start();
+        }
+        for (Runner runner : runners) {
+            runner.thread.join();
+        }
+        // Aguarda as respostas ainda em voo (até 10 s) antes de fechar os histogramas
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (runners.stream().anyMatch(r -> r.inFlight.sum() > 0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Map<String, WorkloadResult> results = new LinkedHashMap<>();
+        double seconds = duration.toNanos() / 1e9;
+        for (Runner runner : runners) {
+            Histogram histogram = runner.recorder.getIntervalHistogram();
+            long requests = histogram.getTotalCount();
+            long errors = runner.errors.sum();
+            results.put(runner.workload.name(), new WorkloadResult(requests, errors, (requests - errors) / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        return results;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private final class Runner {
+
+        private final Workload workload;
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private final Thread thread;
+
+        private Runner(Workload workload, long start, long measureFrom, long end) {
+            this.workload = workload;
+            this.thread = new Thread(() -> schedule(start, measureFrom, end), "load-" + workload.name());
+        }
+
+        private void schedule(long start, long measureFrom, long end) {
+            double intervalNanos = 1e9 / workload.ratePerSecond();
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                if (intended >= end) {
+                    return;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = intended >= measureFrom;
+                inFlight.increment();
+                client.sendAsync(workload.request().apply(i), HttpResponse.BodyHandlers.discarding())
+                      .whenComplete((response, failure) -> {
+                          inFlight.decrement();
+                          if (!measured) {
+                              return; // Aquecimento: não entra no relatório
+                          }
+                          long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                          recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                          if (failure != null || response.statusCode() >= 400) {
+                              errors.increment();
+                          }
+                      });
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.authserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class AuthAuditLogTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesOneJsonLinePerEvent() throws Exception {
+        AuthAuditLog log = new AuthAuditLog(true, dir, 1024, 64, Duration.ofMillis(10), 1 << 20, 10);
+        log.tokenIssued("admin", "ADMIN", "jti-1");
+        log.loginFailed("quem \"é\" você", "203.0.113.7", "bad_credentials");
+        log.tokenRejected("revoked", "user", "USER", "jti-2");
+        log.close();
+
+        List<JsonNode> events = readEvents();
+        assertThat(events).hasSize(3);
+        assertThat(events.get(0).get("event").asText()).isEqualTo("token_issued");
+        assertThat(events.get(0).get("jti").asText()).isEqualTo("jti-1");
+        assertThat(events.get(0).get("role").asText()).isEqualTo("ADMIN");
+        assertThat(events.get(1).get("sub").asText()).isEqualTo("quem \"é\" você");
+        assertThat(events.get(1).get("client").asText()).isEqualTo("203.0.113.7");
+        assertThat(events.get(1).has("jti")).isFalse();
+        assertThat(events.get(2).get("reason").asText()).isEqualTo("revoked");
+        assertThat(events.get(2).get("ts").asLong()).isPositive();
+        assertThat(log.writtenCount()).isEqualTo(3);
+    }
+
+    @Test
+    void dropsInsteadOfBlockingWhenBufferIsFull() throws Exception {
+        // Thread de escrita praticamente parada: o anel de 4 posições enche e os demais eventos são descartados
+        AuthAuditLog log = new AuthAuditLog(true, dir, 4, 64, Duration.ofHours(1), 1 << 20, 10);
+        int attempts = 100;
+        for (int i = 0; i < attempts; i++) {
+            log.loginSucceeded("user" + i, null);
+        }
+        assertThat(log.droppedCount()).isPositive();
+        log.close();
+
+        assertThat(log.writtenCount() + log.droppedCount()).isEqualTo(attempts);
+        assertThat(readEvents()).hasSize((int) log.writtenCount());
+    }
+
+    @Test
+    void rotatesSegmentsAndKeepsOnlyTheMostRecent() throws Exception {
+        AuthAuditLog log = new AuthAuditLog(true, dir, 1024, 64, Duration.ofMillis(10), 256, 2);
+        for (int i = 0; i < 50; i++) {
+            log.tokenIssued("user" + i, "USER", "jti-" + i);
+        }
+        log.close();
+
+        List<Path> segments = segments();
+        assertThat(segments).hasSize(2);
+        for (Path segment : segments) {
+            assertThat(Files.size(segment)).isLessThanOrEqualTo(256); // Truncado no tamanho escrito
+        }
+        List<JsonNode> events = readEvents();
+        assertThat(events.get(events.size() - 1).get("sub").asText()).isEqualTo("user49");
+    }
+
+    @Test
+    void prunesOldSegmentsOnStartup() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            Files.writeString(dir.resolve(String.format("audit-%08d.log", i)), "{}\n"); // Deixados por execuções anteriores
+        }
+        AuthAuditLog log = new AuthAuditLog(true, dir, 1024, 64, Duration.ofMillis(10), 256, 2);
+        log.close();
+
+        assertThat(segments()).extracting(segment -> segment.getFileName().toString())
+                .containsExactly("audit-00000005.log", "audit-00000006.log");
+    }
+
+    private List<JsonNode> readEvents() throws IOException {
+        return segments().stream()
+                .flatMap(segment -> {
+                    try {
+                        return Files.readAllLines(segment).stream();
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.authserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuthMetricsTests {
+
+    @Test
+    void registersEveryOutcomeUpFront() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new AuthMetrics(registry);
+
+        // Antes de qualquer chamada, todos os timers já existem (com contagem zero)
+        assertThat(registry.get("auth.login").tag("outcome", "overloaded").timer().count()).isZero();
+        assertThat(registry.get("auth.refresh").tag("outcome", "reused").timer().count()).isZero();
+        assertThat(registry.get("auth.token.verify").tag("outcome", "expired").tag("cache", "hit").timer().count()).isZero();
+        assertThat(registry.get("auth.token.decode").tag("outcome", "valid").timer().count()).isZero();
+    }
+
+    @Test
+    void unknownOutcomeFallsBackToGenericTimer() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuthMetrics metrics = new AuthMetrics(registry);
+
+        metrics.recordVerification("novo_motivo", false, 1_000);
+        metrics.recordLogin("novo_outcome", 1_000);
+
+        assertThat(registry.get("auth.token.verify").tag("outcome", "invalid").tag("cache", "miss").timer().count()).isEqualTo(1);
+        assertThat(registry.get("auth.login").tag("outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(registry.find("auth.token.verify").tag("outcome", "novo_motivo").timer()).isNull();
+    }
+}
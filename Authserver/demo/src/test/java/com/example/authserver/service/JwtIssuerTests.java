@@ -0,0 +1,116 @@
+package com.example.authserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+import com.example.authserver.validator.TokenRoles;
+
+class JwtIssuerTests {
+
+    private static final String SECRET = "umaChaveSecretaMuitoLongaEComplexaParaAssinarTokensJWT";
+    private static final long IAT = 1_760_000_000L;
+    private static final long EXP = IAT + 3600;
+
+    // Referência: o token que o JWT.create() produzia antes, com as mesmas claims
+    private static String viaJwtCreate(Algorithm algorithm, String subject, String role, String jti) {
+        return JWT.create()
+                .withSubject(subject)
+                .withClaim("role", role)
+                .withJWTId(jti)
+                .withIssuedAt(new Date(IAT * 1000))
+                .withExpiresAt(new Date(EXP * 1000))
+                .sign(algorithm);
+    }
+
+    @Test
+    void hmacTokensAreByteIdenticalToJwtCreate() {
+        JwtIssuer issuer = JwtIssuer.hmac256(SECRET);
+        String[][] cases = {
+            {"admin", "ADMIN", "q8Xk2v0yZr4bL1nA9sQe7w"},
+            {"us\"er\\name", "USER", "jti"}, // Aspas e barra invertida escapadas como no Jackson
+            {"linha\nnova\t\u0001", "USER", "jti"}, // Caracteres de controle
+            {"joão 🚀", "ADMIN", "jti"}, // UTF-8 de 2 e 4 bytes
+            {"x", "USER", "a"}, // Tamanhos que exercitam o padding do Base64URL
+            {"xy", "USER", "ab"},
+        };
+        for (String[] c : cases) {
+            assertThat(issuer.issue(c[0], c[1], c[2], IAT, EXP))
+                    .isEqualTo(viaJwtCreate(Algorithm.HMAC256(SECRET), c[0], c[1], c[2]));
+        }
+    }
+
+    @Test
+    void asymmetricTokensCarryKidAndVerify() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keys = generator.generateKeyPair();
+        Algorithm algorithm = Algorithm.RSA256(new RSAKeyProvider() {
+            @Override
+            public RSAPublicKey getPublicKeyById(String kid) {
+                return (RSAPublicKey) keys.getPublic();
+            }
+
+            @Override
+            public RSAPrivateKey getPrivateKey() {
+                return (RSAPrivateKey) keys.getPrivate();
+            }
+
+            @Override
+            public String getPrivateKeyId() {
+                return "2026-01";
+            }
+        });
+
+        String token = JwtIssuer.signedBy(algorithm).issue("admin", "ADMIN", "jti", IAT, EXP);
+
+        // Assinatura RSA é determinística (PKCS#1 v1.5): o token inteiro coincide com o do java-jwt
+        assertThat(token).isEqualTo(viaJwtCreate(algorithm, "admin", "ADMIN", "jti"));
+        DecodedJWT decoded = JWT.decode(token);
+        assertThat(decoded.getKeyId()).isEqualTo("2026-01");
+        assertThat(decoded.getClaim("role").asString()).isEqualTo("ADMIN");
+        algorithm.verify(decoded);
+    }
+
+    @Test
+    void compactTokensUseRoleCodesAndMinimalHeader() {
+        JwtIssuer issuer = JwtIssuer.hmac256(SECRET, JwtIssuer.Format.COMPACT);
+        String token = issuer.issue("admin", "ADMIN", "q8Xk2v0yZr4bL1nA9sQe7w", IAT, EXP);
+
+        DecodedJWT decoded = JWT.decode(token);
+        Algorithm.HMAC256(SECRET).verify(decoded); // Assinatura só (o exp fixo já passou)
+        assertThat(decoded.getType()).isNull();
+        assertThat(decoded.getClaims()).containsOnlyKeys("sub", "r", "jti", "exp");
+        assertThat(decoded.getClaim("r").asInt()).isEqualTo(TokenRoles.code("ADMIN"));
+        assertThat(TokenRoles.role(decoded)).isEqualTo("ADMIN");
+        assertThat(decoded.getExpiresAtAsInstant().getEpochSecond()).isEqualTo(EXP);
+        assertThat(token.length()).isLessThan(JwtIssuer.hmac256(SECRET).issue("admin", "ADMIN", "q8Xk2v0yZr4bL1nA9sQe7w", IAT, EXP).length());
+
+        // Role sem código: o compacto grava o nome, como o formato padrão
+        DecodedJWT custom = JWT.decode(issuer.issue("svc", "AUDITOR", "jti", IAT, EXP));
+        assertThat(custom.getClaim("r").isMissing()).isTrue();
+        assertThat(TokenRoles.role(custom)).isEqualTo("AUDITOR");
+    }
+
+    @Test
+    void roleCodesAreSingleBitsAndUnknownCodesHaveNoRole() {
+        assertThat(TokenRoles.code("USER")).isEqualTo(1);
+        assertThat(TokenRoles.code("ADMIN")).isEqualTo(2);
+        assertThat(TokenRoles.code("AUDITOR")).isZero();
+        assertThat(TokenRoles.name(1)).isEqualTo("USER");
+        assertThat(TokenRoles.name(2)).isEqualTo("ADMIN");
+        assertThat(TokenRoles.name(0)).isNull();
+        assertThat(TokenRoles.name(3)).isNull(); // Mais de um bit
+        assertThat(TokenRoles.name(1 << 20)).isNull(); // Bit sem role
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.authserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class LoginRateLimiterTests {
+
+    private final AtomicLong now = new AtomicLong(); // Relógio manual (ns)
+
+    // 3 tentativas por usuário a cada 3 s, 5 por endereço a cada 5 s, bloqueio a partir de 2 falhas (1 s, 2 s, ... até 4 s)
+    private final LoginRateLimiter limiter = new LoginRateLimiter(3, Duration.ofSeconds(3), 5, Duration.ofSeconds(5),
+            2, Duration.ofSeconds(1), Duration.ofSeconds(4), 1_000, Duration.ofMinutes(1), now::get);
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void userBucketAllowsBurstThenRefillsAtConfiguredRate() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("ana", "10.0.0." + i);
+        }
+        assertThatThrownBy(() -> limiter.acquire("ana", "10.0.0.9"))
+                .isInstanceOf(LoginRateLimitedException.class)
+                .satisfies(e -> assertThat(((LoginRateLimitedException) e).getRetryAfter()).isEqualTo(Duration.ofSeconds(1)));
+
+        advance(Duration.ofSeconds(1)); // Uma tentativa recomposta por segundo
+        assertThatCode(() -> limiter.acquire("ana", "10.0.0.9")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> limiter.acquire("ana", "10.0.0.9")).isInstanceOf(LoginRateLimitedException.class);
+    }
+
+    @Test
+    void addressBucketLimitsManyUsernamesFromOneClient() {
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("user" + i, "203.0.113.7");
+        }
+        assertThatThrownBy(() -> limiter.acquire("outro", "203.0.113.7"))
+                .isInstanceOf(LoginRateLimitedException.class)
+                .hasMessageContaining("endereço");
+        assertThatCode(() -> limiter.acquire("outro", "198.51.100.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void requestsRejectedByAddressDoNotConsumeTheUsernameBucket() {
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("user" + i, "203.0.113.7");
+        }
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> limiter.acquire("ana", "203.0.113.7")).hasMessageContaining("endereço");
+        }
+        // As tentativas barradas pelo endereço do atacante não gastaram as 3 tentativas de "ana"
+        for (int i = 0; i < 3; i++) {
+            assertThatCode(() -> limiter.acquire("ana", "198.51.100.1")).doesNotThrowAnyException();
+        }
+    }
+
+    @Test
+    void consecutiveFailuresLockTheUsernameProgressively() {
+        limiter.recordFailure("bob");
+        assertThatCode(() -> limiter.acquire("bob", null)).doesNotThrowAnyException();
+
+        limiter.recordFailure("bob"); // 2ª falha: bloqueio de 1 s
+        assertThatThrownBy(() -> limiter.acquire("bob", null))
+                .isInstanceOf(LoginRateLimitedException.class)
+                .satisfies(e -> assertThat(((LoginRateLimitedException) e).getRetryAfter()).isEqualTo(Duration.ofSeconds(1)));
+
+        advance(Duration.ofSeconds(1));
+        limiter.recordFailure("bob"); // 3ª falha: 2 s
+        advance(Duration.ofMillis(1_500));
+        assertThatThrownBy(() -> limiter.acquire("bob", null)).isInstanceOf(LoginRateLimitedException.class);
+
+        advance(Duration.ofMillis(500));
+        limiter.recordFailure("bob"); // 4ª: 4 s
+        limiter.recordFailure("bob"); // 5ª: limitado ao máximo de 4 s
+        advance(Duration.ofSeconds(4));
+        assertThatCode(() -> limiter.acquire("bob", null)).doesNotThrowAnyException();
+
+        // Sucesso zera a contagem: a próxima falha não bloqueia
+        limiter.recordSuccess("bob");
+        limiter.recordFailure("bob");
+        advance(Duration.ofSeconds(3)); // Deixa o bucket de tentativas se recompor
+        assertThatCode(() -> limiter.acquire("bob", null)).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.authserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordHashingExecutorTests {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    // Encoder que segura a thread do pool até o teste liberar, simulando um BCrypt lento
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    };
+
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        executor = new PasswordHashingExecutor(blockingEncoder, 1, 1, Duration.ofSeconds(5), Duration.ofSeconds(3), 1);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> executor.matches("a", "a"));
+        started.await(5, TimeUnit.SECONDS); // A única thread do pool está ocupada
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.matches("b", "b"));
+        while (executor.getQueueSize() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Terceiro login: pool ocupado e fila cheia -> falha rápido
+        assertThatThrownBy(() -> executor.matches("c", "c"))
+                .isInstanceOf(LoginOverloadedException.class)
+                .satisfies(e -> assertThat(((LoginOverloadedException) e).getRetryAfter()).isEqualTo(Duration.ofSeconds(3)));
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void dropsRehashWhileLoginsAreQueuedWithoutTakingTheirSlot() throws Exception {
+        executor = new PasswordHashingExecutor(blockingEncoder, 1, 1, Duration.ofSeconds(5), Duration.ofSeconds(3), 1);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> executor.matches("a", "a"));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.matches("b", "b"));
+        while (executor.getQueueSize() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Logins na fila: o rehash é descartado, e a vaga da fila continua sendo do login
+        AtomicInteger rehashed = new AtomicInteger();
+        executor.rehashInBackground("a", hash -> rehashed.incrementAndGet());
+        assertThat(executor.getQueueSize()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+
+        // Pool de logins livre: o rehash roda no pool próprio
+        CountDownLatch done = new CountDownLatch(1);
+        executor.rehashInBackground("a", hash -> done.countDown());
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(rehashed).hasValue(0);
+    }
+
+    @Test
+    void givesUpWhenWaitDeadlineExpires() {
+        executor = new PasswordHashingExecutor(blockingEncoder, 1, 4, Duration.ofMillis(100), Duration.ofSeconds(1), 1);
+
+        assertThatThrownBy(() -> executor.matches("a", "a"))
+                .isInstanceOf(LoginOverloadedException.class);
+    }
+
+    @Test
+    void expiredQueuedTaskIsOverloadNotWrongPassword() {
+        AtomicInteger compared = new AtomicInteger();
+        PasswordEncoder countingEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                compared.incrementAndGet();
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        // Prazo zero: toda tarefa já sai da fila expirada, e o resultado não pode virar "senha errada"
+        executor = new PasswordHashingExecutor(countingEncoder, 1, 4, Duration.ZERO, Duration.ofSeconds(1), 1);
+
+        for (int i = 0; i < 200; i++) {
+            assertThatThrownBy(() -> executor.matches("a", "a"))
+                    .isInstanceOf(LoginOverloadedException.class);
+        }
+        assertThat(compared).hasValue(0);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.authserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+class RefreshTokenStoreTests {
+
+    @Test
+    void familyKeepsOnlyLiveAndLastConsumedToken() {
+        RefreshTokenStore store = new RefreshTokenStore(Duration.ofDays(7), 1_000);
+        String first = store.issue("ana");
+        String current = first;
+        for (int i = 0; i < 50; i++) {
+            current = store.rotate(current).refreshToken();
+        }
+        assertThat(store.size()).isEqualTo(2); // Antes, as 50 rotações deixavam 51 entradas até o TTL
+
+        // Token antigo (já fora do store) é só inválido; não revoga a família
+        assertThatThrownBy(() -> store.rotate(first))
+                .isInstanceOf(BadCredentialsException.class)
+                .isNotInstanceOf(RefreshTokenReuseException.class);
+        assertThat(store.rotate(current).refreshToken()).isNotNull();
+    }
+
+    @Test
+    void reusingLastConsumedTokenRevokesFamily() {
+        RefreshTokenStore store = new RefreshTokenStore(Duration.ofDays(7), 1_000);
+        String consumed = store.issue("ana");
+        String next = store.rotate(consumed).refreshToken();
+
+        assertThatThrownBy(() -> store.rotate(consumed)).isInstanceOf(RefreshTokenReuseException.class);
+        assertThatThrownBy(() -> store.rotate(next)).isInstanceOf(RefreshTokenReuseException.class);
+    }
+
+    @Test
+    void storeIsBoundedByMaxEntries() {
+        RefreshTokenStore store = new RefreshTokenStore(Duration.ofDays(7), 100);
+        for (int i = 0; i < 1_000; i++) {
+            store.issue("user" + i);
+        }
+        assertThat(store.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void revocationSurvivesMoreRevokedFamiliesThanMaxEntries() {
+        RefreshTokenStore store = new RefreshTokenStore(Duration.ofDays(7), 100);
+        String consumed = store.issue("ana");
+        String live = store.rotate(consumed).refreshToken();
+        assertThatThrownBy(() -> store.rotate(consumed)).isInstanceOf(RefreshTokenReuseException.class);
+
+        // Muito mais revogações que o limite de tokens: a marca da família roubada não pode ser descartada
+        for (long family = 0; family < 10_000; family++) {
+            store.revokeFamily(family);
+        }
+        assertThatThrownBy(() -> store.rotate(live)).isInstanceOf(RefreshTokenReuseException.class);
+    }
+}
@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Compara o tempo de inicialização e a latência da primeira requisição entre o jar padrão e o modo fast-start (AOT + CDS).
+# Pré-requisito: mvn -Pfast-start package   (gera target/demo-0.0.1-SNAPSHOT.jar e target/fast-start/)
+# Uso: ./startup-compare.sh [rodadas]   (padrão: 5 rodadas de cada variante)
+set -euo pipefail
+
+cd "$(dirname "$0")"
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+JAR=target/demo-0.0.1-SNAPSHOT.jar
+FAST_DIR=target/fast-start
+BASE_URL="http://localhost:$PORT"
+
+if [[ ! -f "$JAR" || ! -f "$FAST_DIR/application.jsa" ]]; then
+    echo "❌ Rode antes: mvn -Pfast-start package" >&2
+    exit 1
+fi
+
+now_ms() { date +%s%3N; }
+
+# Sobe a variante, espera o /actuator/health responder e mede o primeiro login e o primeiro acesso autenticado.
+# Imprime: pronto(ms) started(s) primeiro_login(ms) segundo_login(ms) primeiro_hello(ms)
+measure() {
+    local log
+    log=$(mktemp)
+    local start
+    start=$(now_ms)
+    "$@" --server.port="$PORT" --spring.jpa.show-sql=false >"$log" 2>&1 &
+    local pid=$!
+    until curl -sf "$BASE_URL/actuator/health" >/dev/null 2>&1; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "❌ A aplicação terminou antes de ficar pronta:" >&2
+            tail -20 "$log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    local ready=$(( $(now_ms) - start ))
+    local started
+    started=$(grep -o 'Started DemoApplication in [0-9.]* seconds' "$log" | grep -o '[0-9.]*' | head -1)
+
+    local login='username=admin&password=123456'
+    local first second token hello
+    first=$(curl -s -o /dev/null -w '%{time_total}' -d "$login" "$BASE_URL/auth/login")
+    token=$(curl -s -d "$login" "$BASE_URL/auth/login")
+    second=$(curl -s -o /dev/null -w '%{time_total}' -d "$login" "$BASE_URL/auth/login")
+    hello=$(curl -s -o /dev/null -w '%{time_total}' -H "Authorization: Bearer $token" "$BASE_URL/api/hello")
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    rm -f "$log"
+    awk -v r="$ready" -v s="$started" -v f="$first" -v n="$second" -v h="$hello" \
+        'BEGIN { printf "%d %s %.1f %.1f %.1f\n", r, s, f * 1000, n * 1000, h * 1000 }'
+}
+
+report() {
+    local name=$1
+    shift
+    echo "▶ $name"
+    for _ in $(seq "$RUNS"); do
+        measure "$@"
+    done | awk -v name="$name" '
+        { ready += $1; started += $2; first += $3; second += $4; hello += $5; n++ }
+        END { printf "  %-10s pronto %6.0f ms | Started %5.2f s | 1º login %6.1f ms | 2º login %6.1f ms | 1º /api/hello %6.1f ms  (média de %d)\n",
+                     name, ready / n, started / n, first / n, second / n, hello / n, n }'
+}
+
+report "jar" java -jar "$JAR"
+report "fast-start" java -XX:SharedArchiveFile="$FAST_DIR/application.jsa" -Dspring.aot.enabled=true -jar "$FAST_DIR/demo-0.0.1-SNAPSHOT.jar"
@@ -0,0 +1,71 @@
+package com.example.authserver.validator.benchmark;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.example.authserver.validator.TokenValidator;
+import com.example.authserver.validator.ValidatedToken;
+import com.example.authserver.validator.ValidationResult;
+
+// Custo por token da validação embutida no serviço consumidor (compare com a ida e volta do POST /auth/validate):
+//   verifyCached   -> token já visto (estado estável): SHA-256 do token, consulta ao cache e revogação
+//   verifyUncached -> primeiro uso do token (cache desligado): parse, HMAC, exp e extração da role
+//   validate       -> verifyCached devolvendo o ValidationResult, sem exceção
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenValidatorBenchmark {
+
+    private static final String SECRET = "umaChaveSecretaMuitoLongaEComplexaParaAssinarTokensJWT";
+
+    @Param({"standard", "compact"})
+    public String format;
+
+    private TokenValidator cached;
+    private TokenValidator uncached;
+    private String token;
+
+    @Setup
+    public void setup() {
+        Set<String> revoked = ConcurrentHashMap.newKeySet();
+        revoked.add("outro-jti");
+        cached = TokenValidator.hmac256(SECRET).revocationCheck(revoked::contains).build();
+        uncached = TokenValidator.hmac256(SECRET).maxCacheEntries(0).revocationCheck(revoked::contains).build();
+
+        Instant exp = Instant.now().plusSeconds(3600);
+        token = "standard".equals(format)
+                ? JWT.create().withSubject("admin").withClaim("role", "ADMIN").withJWTId("q8Xk2v0yZr4bL1nA9sQe7w")
+                        .withIssuedAt(Instant.now()).withExpiresAt(exp).sign(Algorithm.HMAC256(SECRET))
+                : JWT.create().withSubject("admin").withClaim("r", 2).withJWTId("q8Xk2v0yZr4bL1nA9sQe7w")
+                        .withExpiresAt(exp).sign(Algorithm.HMAC256(SECRET));
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public ValidatedToken verifyCached() {
+        return cached.verify(token);
+    }
+
+    @Benchmark
+    public ValidatedToken verifyUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public ValidationResult validate() {
+        return cached.validate(token);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.authserver.validator;
+
+// Gancho de revogação consultado em toda validação, inclusive quando o token vem do cache de verificados.
+// O serviço consumidor decide a fonte (lista local alimentada por eventos, Redis, consulta ao /auth/introspect...);
+// a implementação precisa ser thread-safe e rápida no caso comum (jti não revogado).
+@FunctionalInterface
+public interface RevocationCheck {
+
+    RevocationCheck NONE = jti -> false;
+
+    boolean isRevoked(String jti);
+}
@@ -0,0 +1,11 @@
+package com.example.authserver.validator;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+
+// Token com assinatura válida, mas cujo jti o RevocationCheck informou como revogado
+public class TokenRevokedException extends JWTVerificationException {
+
+    public TokenRevokedException(String jti) {
+        super("O token " + jti + " foi revogado.");
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.authserver.validator;
+
+import java.util.List;
+
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+// Role dentro do token. O formato padrão grava o nome ("role":"ADMIN"); o compacto (jwt.format=compact) grava
+// um código de bits ("r":2), com um bit por role conhecida. Tabela única, usada pelo Authserver para emitir e
+// converter em authorities e por este módulo para validar: quem lê aceita os dois formatos.
+public final class TokenRoles {
+
+    public static final String ROLE_CLAIM = "role";
+    public static final String CODE_CLAIM = "r";
+
+    // Bit i = ROLES.get(i). A ordem faz parte do formato dos tokens já emitidos: novas roles só entram no final
+    private static final List<String> ROLES = List.of("USER", "ADMIN");
+
+    private TokenRoles() {
+    }
+
+    // Roles conhecidas (com código), na ordem dos bits
+    public static List<String> roles() {
+        return ROLES;
+    }
+
+    // 0 quando a role não tem código: o token compacto então grava o nome, como no formato padrão
+    public static int code(String role) {
+        int index = ROLES.indexOf(role);
+        return index < 0 ? 0 : 1 << index;
+    }
+
+    // Nome da role de um código com um único bit conhecido; null para qualquer outro valor
+    public static String name(int code) {
+        if (Integer.bitCount(code) != 1) {
+            return null;
+        }
+        int index = Integer.numberOfTrailingZeros(code);
+        return index < ROLES.size() ? ROLES.get(index) : null;
+    }
+
+    public static String role(DecodedJWT jwt) {
+        Claim role = jwt.getClaim(ROLE_CLAIM);
+        if (!role.isMissing()) {
+            return role.asString();
+        }
+        Integer code = jwt.getClaim(CODE_CLAIM).asInt();
+        return code == null ? null : name(code);
+    }
+}
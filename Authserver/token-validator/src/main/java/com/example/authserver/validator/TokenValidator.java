@@ -0,0 +1,169 @@
+package com.example.authserver.validator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.AlgorithmMismatchException;
+import com.auth0.jwt.exceptions.IncorrectClaimException;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.MissingClaimException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+
+// Validação local dos tokens emitidos pelo Authserver, para embutir no serviço consumidor no lugar do
+// POST /auth/validate (sem a ida e volta pela rede). É a mesma lógica do JwtService do servidor: verificador do
+// java-jwt criado uma vez, cache dos tokens já verificados até o 'exp' e revogação checada a cada uso. O servidor
+// usa deste módulo o VerifiedTokenCache, o TokenRoles e o failureReason. Aceita os formatos padrão e compacto.
+// Thread-safe: uma instância por aplicação.
+//
+//   TokenValidator validator = TokenValidator.hmac256(secret).revocationCheck(jti -> revoked.contains(jti)).build();
+//   ValidatedToken token = validator.verify(bearer); // lança JWTVerificationException se inválido
+public final class TokenValidator {
+
+    // Todos os códigos que failureReason pode devolver (ex.: para registrar métricas por motivo de antemão)
+    public static final List<String> FAILURE_REASONS = List.of(
+            "revoked", "expired", "invalid_signature", "malformed", "algorithm_mismatch", "invalid_claim", "invalid");
+
+    private final JWTVerifier verifier;
+    private final VerifiedTokenCache<ValidatedToken> cache; // null com o cache desligado (maxCacheEntries = 0)
+    private final RevocationCheck revocationCheck;
+
+    private TokenValidator(Builder builder) {
+        this.verifier = JWT.require(builder.algorithm).acceptLeeway(builder.leeway.toSeconds()).build();
+        this.cache = builder.maxCacheEntries > 0 ? new VerifiedTokenCache<>(builder.maxCacheEntries, ValidatedToken::expiresAt) : null;
+        this.revocationCheck = builder.revocationCheck;
+    }
+
+    // Modo hmac do servidor: o mesmo jwt.secret
+    public static Builder hmac256(String secret) {
+        return builder(Algorithm.HMAC256(secret.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Modo asymmetric: ex.: Algorithm.RSA256 com um RSAKeyProvider que lê o /.well-known/jwks.json
+    public static Builder builder(Algorithm algorithm) {
+        return new Builder(algorithm);
+    }
+
+    // Verifica o token e devolve as claims já extraídas. Lança JWTVerificationException se o token for inválido
+    // (TokenRevokedException se o RevocationCheck informar o jti como revogado).
+    public ValidatedToken verify(String token) {
+        ValidatedToken verified = cache != null ? cache.get(token) : null;
+        if (verified == null) {
+            verified = ValidatedToken.of(verifier.verify(token));
+            if (cache != null) {
+                cache.put(token, verified);
+            }
+        }
+        // A revogação é checada mesmo em acerto de cache: o token pode ter sido revogado depois de verificado
+        if (verified.id() != null && revocationCheck.isRevoked(verified.id())) {
+            throw new TokenRevokedException(verified.id());
+        }
+        return verified;
+    }
+
+    // Igual a verify, mas devolve Optional vazio em vez de lançar exceção
+    public Optional<ValidatedToken> tryVerify(String token) {
+        try {
+            return Optional.of(verify(token));
+        } catch (JWTVerificationException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Resultado detalhado, com o motivo da falha nos mesmos códigos do servidor
+    public ValidationResult validate(String token) {
+        if (token == null || token.isBlank()) {
+            return ValidationResult.invalid("malformed");
+        }
+        try {
+            return ValidationResult.valid(verify(token));
+        } catch (JWTVerificationException e) {
+            return ValidationResult.invalid(failureReason(e));
+        }
+    }
+
+    public List<ValidationResult> validateAll(List<String> tokens) {
+        return tokens.stream().map(this::validate).toList();
+    }
+
+    public long cachedTokens() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    // Ex.: depois de trocar o segredo ou as chaves; a próxima validação de cada token volta a verificar a assinatura
+    public void invalidateCache() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    // Traduz a exceção do java-jwt num código curto e estável (os mesmos do /auth/validate do servidor)
+    public static String failureReason(JWTVerificationException e) {
+        if (e instanceof TokenRevokedException) {
+            return "revoked";
+        }
+        if (e instanceof TokenExpiredException) {
+            return "expired";
+        }
+        if (e instanceof SignatureVerificationException) {
+            return "invalid_signature";
+        }
+        if (e instanceof JWTDecodeException) {
+            return "malformed";
+        }
+        if (e instanceof AlgorithmMismatchException) {
+            return "algorithm_mismatch";
+        }
+        if (e instanceof IncorrectClaimException || e instanceof MissingClaimException) {
+            return "invalid_claim";
+        }
+        return "invalid";
+    }
+
+    public static final class Builder {
+
+        private final Algorithm algorithm;
+        private long maxCacheEntries = 10_000;
+        private RevocationCheck revocationCheck = RevocationCheck.NONE;
+        private Duration leeway = Duration.ZERO;
+
+        private Builder(Algorithm algorithm) {
+            this.algorithm = Objects.requireNonNull(algorithm, "algorithm");
+        }
+
+        // Máximo de tokens verificados em memória (padrão 10000, como jwt.cache.max-entries); 0 desliga o cache
+        public Builder maxCacheEntries(long maxCacheEntries) {
+            if (maxCacheEntries < 0) {
+                throw new IllegalArgumentException("maxCacheEntries não pode ser negativo: " + maxCacheEntries);
+            }
+            this.maxCacheEntries = maxCacheEntries;
+            return this;
+        }
+
+        public Builder revocationCheck(RevocationCheck revocationCheck) {
+            this.revocationCheck = Objects.requireNonNull(revocationCheck, "revocationCheck");
+            return this;
+        }
+
+        // Tolerância para diferença de relógio com o servidor na checagem de exp/iat (padrão: nenhuma).
+        // Tokens no cache continuam saindo dele no 'exp' exato e, depois disso, passam de novo pelo verificador.
+        public Builder leeway(Duration leeway) {
+            if (leeway.isNegative()) {
+                throw new IllegalArgumentException("leeway não pode ser negativo: " + leeway);
+            }
+            this.leeway = leeway;
+            return this;
+        }
+
+        public TokenValidator build() {
+            return new TokenValidator(this);
+        }
+    }
+}
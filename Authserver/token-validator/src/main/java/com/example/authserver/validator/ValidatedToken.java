@@ -0,0 +1,18 @@
+package com.example.authserver.validator;
+
+import java.time.Instant;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+// Token com assinatura e expiração já verificadas. Subject, role, jti e exp são extraídos uma única vez,
+// na verificação, e a mesma instância é devolvida enquanto o token estiver no cache.
+public record ValidatedToken(String subject, String role, String id, Instant expiresAt, DecodedJWT decoded) {
+
+    static ValidatedToken of(DecodedJWT jwt) {
+        return new ValidatedToken(jwt.getSubject(), TokenRoles.role(jwt), jwt.getId(), jwt.getExpiresAtAsInstant(), jwt);
+    }
+
+    public boolean hasRole(String expected) {
+        return expected.equals(role);
+    }
+}
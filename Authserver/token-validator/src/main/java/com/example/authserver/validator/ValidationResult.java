@@ -0,0 +1,16 @@
+package com.example.authserver.validator;
+
+import java.time.Instant;
+
+// Resultado da validação sem exceção: os mesmos campos e códigos de erro do POST /auth/validate/batch
+// ("expired", "invalid_signature", "malformed", "revoked", ...)
+public record ValidationResult(boolean valid, String subject, String role, Instant expiresAt, String error) {
+
+    static ValidationResult valid(ValidatedToken token) {
+        return new ValidationResult(true, token.subject(), token.role(), token.expiresAt(), null);
+    }
+
+    static ValidationResult invalid(String error) {
+        return new ValidationResult(false, null, null, null, error);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.authserver.validator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+// Cache limitado de tokens cuja assinatura já foi verificada, usado pelo TokenValidator (ValidatedToken) e pelo
+// JwtService do Authserver (DecodedJWT). A chave é o SHA-256 do token (o token em si não fica guardado) e cada
+// entrada expira no 'exp' do próprio token, lido do valor guardado.
+public final class VerifiedTokenCache<T> {
+
+    // MessageDigest não é thread-safe: cada thread reutiliza a sua instância
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    });
+
+    private final Cache<ByteBuffer, T> cache;
+    private final Function<? super T, Instant> expiresAt;
+
+    public VerifiedTokenCache(long maxEntries, Function<? super T, Instant> expiresAt) {
+        this.expiresAt = expiresAt;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries) // Limita a memória usada pelo cache
+                .expireAfter(new ExpireAtTokenExp()) // Remove a entrada no instante de expiração do token
+                .build();
+    }
+
+    // Cache dos tokens decodificados pelo java-jwt
+    public static VerifiedTokenCache<DecodedJWT> ofDecoded(long maxEntries) {
+        return new VerifiedTokenCache<>(maxEntries, DecodedJWT::getExpiresAtAsInstant);
+    }
+
+    public T get(String token) {
+        return cache.getIfPresent(digest(token));
+    }
+
+    public void put(String token, T verified) {
+        // Tokens sem 'exp' (ou já expirados) não são cacheados: não há um limite seguro para a entrada
+        Instant expiry = expiresAt.apply(verified);
+        if (expiry == null || !expiry.isAfter(Instant.now())) {
+            return;
+        }
+        cache.put(digest(token), verified);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static ByteBuffer digest(String token) {
+        // ByteBuffer implementa equals/hashCode pelo conteúdo, servindo como chave do mapa
+        return ByteBuffer.wrap(SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private final class ExpireAtTokenExp implements Expiry<ByteBuffer, T> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, T value, long currentTime) {
+            long millis = expiresAt.apply(value).toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, T value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, T value, long currentTime, long currentDuration) {
+            return currentDuration; // Leituras não estendem a vida da entrada
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.authserver.validator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+
+class TokenValidatorTests {
+
+    private static final String SECRET = "umaChaveSecretaMuitoLongaEComplexaParaAssinarTokensJWT";
+
+    // Mesmas claims que o JwtService do servidor emite no formato padrão (sub, role, jti, iat, exp)
+    private static String standardToken(String subject, String role, String jti, Instant exp) {
+        return JWT.create()
+                .withSubject(subject)
+                .withClaim("role", role)
+                .withJWTId(jti)
+                .withIssuedAt(Instant.now())
+                .withExpiresAt(exp)
+                .sign(Algorithm.HMAC256(SECRET));
+    }
+
+    // Payload do formato compacto (jwt.format=compact): sem iat, role como código de bits em "r"
+    private static String compactToken(String subject, int roleCode, String jti, Instant exp) {
+        return JWT.create()
+                .withSubject(subject)
+                .withClaim("r", roleCode)
+                .withJWTId(jti)
+                .withExpiresAt(exp)
+                .sign(Algorithm.HMAC256(SECRET));
+    }
+
+    private static Instant inOneHour() {
+        return Instant.now().plusSeconds(3600);
+    }
+
+    @Test
+    void verifiesBothTokenFormatsAndExtractsTheRole() {
+        TokenValidator validator = TokenValidator.hmac256(SECRET).build();
+
+        ValidatedToken standard = validator.verify(standardToken("admin", "ADMIN", "jti-1", inOneHour()));
+        assertThat(standard.subject()).isEqualTo("admin");
+        assertThat(standard.role()).isEqualTo("ADMIN");
+        assertThat(standard.id()).isEqualTo("jti-1");
+        assertThat(standard.hasRole("ADMIN")).isTrue();
+
+        ValidatedToken compact = validator.verify(compactToken("user", 1, "jti-2", inOneHour()));
+        assertThat(compact.role()).isEqualTo("USER");
+        assertThat(validator.validate(compactToken("admin", 2, "jti-3", inOneHour())).role()).isEqualTo("ADMIN");
+        assertThat(validator.verify(compactToken("x", 3, "jti-4", inOneHour())).role()).isNull(); // Código desconhecido
+    }
+
+    @Test
+    void verifiedTokensAreCachedUntilExp() {
+        TokenValidator validator = TokenValidator.hmac256(SECRET).build();
+        String token = standardToken("user", "USER", "jti", inOneHour());
+
+        assertThat(validator.verify(token)).isSameAs(validator.verify(token));
+        assertThat(validator.cachedTokens()).isEqualTo(1);
+
+        TokenValidator uncached = TokenValidator.hmac256(SECRET).maxCacheEntries(0).build();
+        assertThat(uncached.verify(token)).isNotSameAs(uncached.verify(token));
+        assertThat(uncached.cachedTokens()).isZero();
+    }
+
+    @Test
+    void revocationIsCheckedEvenForCachedTokens() {
+        Set<String> revoked = ConcurrentHashMap.newKeySet();
+        TokenValidator validator = TokenValidator.hmac256(SECRET).revocationCheck(revoked::contains).build();
+        String token = standardToken("user", "USER", "jti-revogado", inOneHour());
+        validator.verify(token); // Agora no cache
+
+        revoked.add("jti-revogado");
+
+        assertThatThrownBy(() -> validator.verify(token)).isInstanceOf(TokenRevokedException.class);
+        assertThat(validator.validate(token).error()).isEqualTo("revoked");
+        assertThat(validator.tryVerify(token)).isEmpty();
+    }
+
+    @Test
+    void invalidTokensReportTheServerFailureCodes() {
+        TokenValidator validator = TokenValidator.hmac256(SECRET).build();
+        String token = standardToken("user", "USER", "jti", inOneHour());
+
+        assertThat(validator.validateAll(List.of(
+                token,
+                token.substring(0, token.length() - 2) + "xx",
+                standardToken("user", "USER", "jti", Instant.now().minusSeconds(10)),
+                "lixo",
+                "")))
+                .extracting(ValidationResult::error)
+                .containsExactly(null, "invalid_signature", "expired", "malformed", "malformed");
+
+        TokenValidator otherSecret = TokenValidator.hmac256("outroSegredoTotalmenteDiferenteComMaisDe32Caracteres").build();
+        assertThatThrownBy(() -> otherSecret.verify(token)).isInstanceOf(SignatureVerificationException.class);
+    }
+
+    @Test
+    void leewayAcceptsSmallClockSkew() {
+        String justExpired = standardToken("user", "USER", "jti", Instant.now().minusSeconds(5));
+
+        assertThat(TokenValidator.hmac256(SECRET).build().validate(justExpired).valid()).isFalse();
+        assertThat(TokenValidator.hmac256(SECRET).leeway(Duration.ofSeconds(30)).build().validate(justExpired).valid()).isTrue();
+    }
+}